@@ -157,6 +157,8 @@ public class DataInitializer implements CommandLineRunner {
         img.setPath(path);
         img.setEvent(event);
         imageRepository.save(img);
+        event.setImageUrl(path);
+        eventRepository.save(event);
     }
 
     private void attachLocationImage(Location location, String path) {
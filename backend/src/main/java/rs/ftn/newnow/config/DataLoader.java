@@ -185,6 +185,8 @@ public class DataLoader implements CommandLineRunner {
             image.setPath(path);
             image.setUser(user);
             imageRepository.save(image);
+            user.setAvatarUrl(path);
+            userRepository.save(user);
         } catch (Exception ex) {
             log.warn("Failed to attach avatar for {} ({}): {}", user.getName(), user.getEmail(), ex.getMessage());
         }
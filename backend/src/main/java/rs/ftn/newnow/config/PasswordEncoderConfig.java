@@ -1,15 +1,46 @@
 package rs.ftn.newnow.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import rs.ftn.newnow.security.BoundedPasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
+@Slf4j
 public class PasswordEncoderConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    /**
+     * BCrypt on a bounded pool. Without an explicit {@code app.security.bcrypt.strength} the
+     * strength is calibrated at startup to the highest one that hashes within the target time.
+     * Existing hashes keep verifying at whatever strength they were created with.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength:0}") int configuredStrength,
+            @Value("${app.security.bcrypt.target-hash-time:PT0.25S}") Duration targetHashTime,
+            @Value("${app.security.bcrypt.threads:0}") int configuredThreads,
+            @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.bcrypt.max-wait:PT5S}") Duration maxWait) {
+        int strength = configuredStrength > 0
+                ? configuredStrength
+                : BoundedPasswordEncoder.calibrateStrength(targetHashTime, PasswordEncoderConfig::timeHash);
+        int threads = configuredThreads > 0
+                ? configuredThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        log.info("Password hashing: BCrypt strength {} on {} threads, queue of {}", strength, threads, queueCapacity);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, maxWait);
+    }
+
+    private static long timeHash(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return System.nanoTime() - start;
     }
 }
@@ -0,0 +1,53 @@
+package rs.ftn.newnow.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-bucket limits per route, bound from {@code app.rate-limit.*}. The first rule whose
+ * pattern and method match a request applies; setting {@code rules} replaces the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long are full again and can be dropped
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private int maxBuckets = 100_000;
+
+    private List<Rule> rules = new ArrayList<>(List.of(
+            new Rule("/api/auth/login", "POST", Key.IP, 10, Duration.ofMinutes(1)),
+            new Rule("/api/auth/register-request", "POST", Key.IP, 5, Duration.ofMinutes(1)),
+            new Rule("/api/auth/refresh", "POST", Key.IP, 20, Duration.ofMinutes(1)),
+            new Rule("/api/search/**", null, Key.USER, 60, Duration.ofSeconds(10)),
+            new Rule("/api/events/**", "GET", Key.USER, 60, Duration.ofSeconds(10))
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private String pattern;
+        // Any method when null
+        private String method;
+        private Key key = Key.IP;
+        // Burst size; the bucket refills completely over one period
+        private int capacity;
+        private Duration period;
+    }
+
+    public enum Key {
+        IP,
+        // The authenticated user, or the IP for anonymous callers
+        USER
+    }
+}
@@ -1,6 +1,7 @@
 package rs.ftn.newnow.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,6 +21,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import rs.ftn.newnow.security.CustomUserDetailsService;
 import rs.ftn.newnow.security.JwtAuthenticationFilter;
+import rs.ftn.newnow.security.RateLimitFilter;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,10 +29,12 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CustomUserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
 
@@ -55,6 +59,8 @@ public class SecurityConfig {
                             "/api/locations/*/reviews/sort",
                             "/api/reviews/*",
                             "/api/reviews/*/comments",
+                            "/api/reviews/*/comments/top",
+                            "/api/reviews/*/comments/*/replies",
                             "/api/feed/**",
                             "/api/search/**",
                             "/api/debug/**"
@@ -65,7 +71,8 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -8,6 +8,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import rs.ftn.newnow.dto.*;
 import rs.ftn.newnow.model.enums.RequestStatus;
+import rs.ftn.newnow.security.BoundedPasswordEncoder;
 import rs.ftn.newnow.service.AccountRequestService;
 import rs.ftn.newnow.service.AuditLogService;
 import rs.ftn.newnow.service.ManagesService;
@@ -27,6 +28,7 @@ public class AdminController {
     private final ManagesService managesService;
     private final AuditLogService auditLogService;
     private final UserService userService;
+    private final BoundedPasswordEncoder passwordEncoder;
 
     @GetMapping("/register-requests")
     public ResponseEntity<?> getRegisterRequests(
@@ -171,4 +173,9 @@ public class AdminController {
                     .body(new MessageResponse("Failed to search users"));
         }
     }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getStats());
+    }
 }
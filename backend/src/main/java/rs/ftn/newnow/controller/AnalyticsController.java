@@ -1,17 +1,25 @@
 package rs.ftn.newnow.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import rs.ftn.newnow.dto.*;
+import rs.ftn.newnow.exception.ReportQueueFullException;
 import rs.ftn.newnow.model.User;
 import rs.ftn.newnow.repository.UserRepository;
+import rs.ftn.newnow.service.AnalyticsReportService;
 import rs.ftn.newnow.service.AnalyticsService;
+import rs.ftn.newnow.service.LocationExportService;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,6 +32,8 @@ import java.util.List;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final AnalyticsReportService analyticsReportService;
+    private final LocationExportService locationExportService;
     private final UserRepository userRepository;
 
     @GetMapping("/locations/{id}/summary")
@@ -50,6 +60,148 @@ public class AnalyticsController {
         }
     }
 
+    @GetMapping("/ratings")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRatingAggregate(
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "monthly") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            RatingAggregateDTO aggregate = analyticsService.getRatingAggregate(type, period, startDate, endDate);
+            return ResponseEntity.ok(aggregate);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching rating aggregate", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch rating aggregate"));
+        }
+    }
+
+    @GetMapping("/locations/leaderboard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getLocationLeaderboard(
+            @RequestParam(defaultValue = "monthly") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "reviews") String sort,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            LocationLeaderboardDTO leaderboard = analyticsService.getLocationLeaderboard(
+                    period, startDate, endDate, sort, limit);
+            return ResponseEntity.ok(leaderboard);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching location leaderboard", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch location leaderboard"));
+        }
+    }
+
+    @GetMapping("/locations/{id}/timeseries")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
+    public ResponseEntity<?> getLocationTimeSeries(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "monthly") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            
+            LocationTimeSeriesDTO timeSeries = analyticsService.getLocationTimeSeries(
+                    id, granularity, period, startDate, endDate, currentUser);
+            return ResponseEntity.ok(timeSeries);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching location time series", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch location time series"));
+        }
+    }
+
+    @PostMapping("/locations/{id}/reports")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
+    public ResponseEntity<?> submitReport(
+            @PathVariable Long id,
+            @Valid @RequestBody CreateReportJobDTO request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+            ReportJobDTO job = analyticsReportService.submit(id, request, currentUser);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (ReportQueueFullException e) {
+            log.warn("Report rejected for location {}: queue is full", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(ReportQueueFullException.RETRY_AFTER_SECONDS))
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error submitting report", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to submit report"));
+        }
+    }
+
+    @GetMapping("/reports/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getReport(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+            return analyticsReportService.getJob(jobId, currentUser)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new MessageResponse("Report not found")));
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching report", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch report"));
+        }
+    }
+
+    @GetMapping("/locations/{id}/daily/export")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
+    public ResponseEntity<StreamingResponseBody> exportDailyStats(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        // Validation errors surface through the global handler; the body type must stay streaming
+        LocationExportService.ExportFormat exportFormat = LocationExportService.ExportFormat.parse(format);
+        locationExportService.requireLocation(id);
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        StreamingResponseBody body = out -> locationExportService.writeDailyStats(id, start, end, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"location-" + id
+                        + "-daily." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/locations/{id}/events/counts")
     @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
     public ResponseEntity<?> getLocationEventCounts(
@@ -94,6 +246,49 @@ public class AnalyticsController {
         }
     }
 
+    @GetMapping("/locations/{id}/ratings/distribution")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
+    public ResponseEntity<?> getLocationRatingDistribution(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            
+            RatingDistributionDTO distribution = analyticsService.getLocationRatingDistribution(id, currentUser);
+            return ResponseEntity.ok(distribution);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching rating distribution", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch rating distribution"));
+        }
+    }
+
+    @GetMapping("/locations/{id}/events/{eventId}/ratings/distribution")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
+    public ResponseEntity<?> getEventRatingDistribution(
+            @PathVariable Long id,
+            @PathVariable Long eventId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            
+            RatingDistributionDTO distribution = analyticsService.getEventRatingDistribution(id, eventId, currentUser);
+            return ResponseEntity.ok(distribution);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching rating distribution", e);
+            return ResponseEntity.internalServerError()
+                    .body(new MessageResponse("Failed to fetch rating distribution"));
+        }
+    }
+
     @GetMapping("/locations/{id}/reviews/latest")
     @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#id, authentication.name)")
     public ResponseEntity<?> getLatestReviews(
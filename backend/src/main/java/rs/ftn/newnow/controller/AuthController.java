@@ -3,12 +3,14 @@ package rs.ftn.newnow.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import rs.ftn.newnow.dto.*;
+import rs.ftn.newnow.exception.PasswordHashingBusyException;
 import rs.ftn.newnow.model.AccountRequest;
 import rs.ftn.newnow.service.AccountRequestService;
 import rs.ftn.newnow.service.AuthService;
@@ -34,6 +36,9 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             log.error("Registration validation error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            log.warn("Registration rejected while password hashing is saturated");
+            return serviceBusy(e);
         } catch (Exception e) {
             log.error("Registration failed", e);
             return ResponseEntity.internalServerError()
@@ -66,6 +71,9 @@ public class AuthController {
             AuthResponse response = authService.login(request);
             log.info("Login successful for email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            log.warn("Login rejected while password hashing is saturated: {}", request.getEmail());
+            return serviceBusy(e);
         } catch (Exception e) {
             log.error("Login failed for email: {}", request.getEmail(), e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -75,8 +83,11 @@ public class AuthController {
 
     @PostMapping("/logout")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                    @RequestBody(required = false) RefreshTokenRequest request) {
         log.info("Logout request received");
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
         return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
     }
 
@@ -97,4 +108,10 @@ public class AuthController {
                     .body(new MessageResponse("Refresh token failed"));
         }
     }
+
+    private ResponseEntity<MessageResponse> serviceBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(PasswordHashingBusyException.RETRY_AFTER_SECONDS))
+                .body(new MessageResponse(e.getMessage()));
+    }
 }
@@ -1,14 +1,12 @@
 package rs.ftn.newnow.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import rs.ftn.newnow.dto.EventBasicDTO;
-import rs.ftn.newnow.dto.LocationDTO;
-import rs.ftn.newnow.dto.ReviewDetailsDTO;
 import rs.ftn.newnow.service.FeedService;
-
-import java.util.List;
+import rs.ftn.newnow.service.FeedService.FeedPayload;
 
 @RestController
 @RequestMapping("/api/feed")
@@ -18,21 +16,27 @@ public class FeedController {
     private final FeedService feedService;
 
     @GetMapping("/today-events")
-    public ResponseEntity<List<EventBasicDTO>> getTodayEvents() {
-        List<EventBasicDTO> events = feedService.getTodayEvents();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<byte[]> getTodayEvents() {
+        return toResponse(feedService.getTodayEvents());
     }
 
     @GetMapping("/popular-locations")
-    public ResponseEntity<List<LocationDTO>> getPopularLocations(
+    public ResponseEntity<byte[]> getPopularLocations(
             @RequestParam(defaultValue = "10") int limit) {
-        List<LocationDTO> locations = feedService.getPopularLocations(limit);
-        return ResponseEntity.ok(locations);
+        return toResponse(feedService.getPopularLocations(limit));
     }
 
     @GetMapping("/popular-location-latest-reviews")
-    public ResponseEntity<List<ReviewDetailsDTO>> getPopularLocationLatestReviews() {
-        List<ReviewDetailsDTO> reviews = feedService.getPopularLocationLatestReviews();
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<byte[]> getPopularLocationLatestReviews() {
+        return toResponse(feedService.getPopularLocationLatestReviews());
+    }
+
+    // A matching If-None-Match is answered with 304 by Spring once the ETag is set
+    private ResponseEntity<byte[]> toResponse(FeedPayload payload) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(payload.getEtag())
+                .body(payload.getBody());
     }
 }
@@ -28,13 +28,19 @@ public class LocationController {
     private final LocationService locationService;
 
     @GetMapping
-    public ResponseEntity<LocationPageResponse> getLocations(
+    public ResponseEntity<?> getLocations(
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(locationService.getLocationsByCursor(search, cursor, size));
+            }
             LocationPageResponse response = locationService.getLocations(search, page, size);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             log.error("Error fetching locations", e);
             return ResponseEntity.internalServerError().build();
@@ -177,15 +183,21 @@ public class LocationController {
     }
 
     @GetMapping("/{id}/reviews")
-    public ResponseEntity<Page<ReviewDTO>> getLocationReviews(
+    public ResponseEntity<?> getLocationReviews(
             @PathVariable Long id,
             @RequestParam(defaultValue = "date") String sort,
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(locationService.getLocationReviewsByCursor(id, sort, order, cursor, size));
+            }
             Page<ReviewDTO> reviews = locationService.getLocationReviews(id, sort, order, page, size);
             return ResponseEntity.ok(reviews);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         } catch (RuntimeException e) {
             log.error("Location not found: {}", id, e);
             return ResponseEntity.notFound().build();
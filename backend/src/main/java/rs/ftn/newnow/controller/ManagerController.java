@@ -3,12 +3,17 @@ package rs.ftn.newnow.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import rs.ftn.newnow.dto.HideReviewDTO;
 import rs.ftn.newnow.dto.MessageResponse;
 import rs.ftn.newnow.dto.ReviewDetailsDTO;
+import rs.ftn.newnow.service.LocationExportService;
 import rs.ftn.newnow.service.ReviewService;
 
 @RestController
@@ -17,6 +22,7 @@ import rs.ftn.newnow.service.ReviewService;
 public class ManagerController {
 
     private final ReviewService reviewService;
+    private final LocationExportService locationExportService;
 
     @GetMapping("/locations/{locationId}/reviews")
     public ResponseEntity<Page<ReviewDetailsDTO>> getLocationReviewsForManager(
@@ -31,6 +37,22 @@ public class ManagerController {
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/locations/{locationId}/reviews/export")
+    @PreAuthorize("hasRole('ADMIN') or @analyticsService.isManagerOfLocation(#locationId, authentication.name)")
+    public ResponseEntity<StreamingResponseBody> exportLocationReviews(
+            @PathVariable Long locationId,
+            @RequestParam(defaultValue = "csv") String format) {
+        LocationExportService.ExportFormat exportFormat = LocationExportService.ExportFormat.parse(format);
+        locationExportService.requireLocation(locationId);
+
+        StreamingResponseBody body = out -> locationExportService.writeReviews(locationId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"location-" + locationId
+                        + "-reviews." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @PatchMapping("/reviews/{id}/hide")
     public ResponseEntity<MessageResponse> hideReview(
             @PathVariable Long id,
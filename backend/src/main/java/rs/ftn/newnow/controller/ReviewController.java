@@ -54,12 +54,16 @@ public class ReviewController {
     }
 
     @GetMapping("/locations/{locationId}/reviews/sort")
-    public ResponseEntity<Page<ReviewDetailsDTO>> getLocationReviewsSorted(
+    public ResponseEntity<?> getLocationReviewsSorted(
             @PathVariable Long locationId,
             @RequestParam(defaultValue = "date") String sort,
             @RequestParam(defaultValue = "desc") String order,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(reviewService.getLocationReviewsByCursor(locationId, sort, order, cursor, size));
+        }
         Page<ReviewDetailsDTO> reviews = reviewService.getLocationReviews(locationId, sort, order, page, size);
         return ResponseEntity.ok(reviews);
     }
@@ -79,6 +83,23 @@ public class ReviewController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping("/reviews/{id}/comments/top")
+    public ResponseEntity<CursorPageResponse<CommentDTO>> getTopLevelComments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(commentService.getTopLevelComments(id, cursor, size));
+    }
+
+    @GetMapping("/reviews/{id}/comments/{commentId}/replies")
+    public ResponseEntity<CursorPageResponse<CommentDTO>> getReplies(
+            @PathVariable Long id,
+            @PathVariable Long commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getReplies(id, commentId, cursor, size));
+    }
+
     @DeleteMapping("/reviews/{id}/comments/{commentId}")
     public ResponseEntity<MessageResponse> deleteComment(
             @PathVariable Long id,
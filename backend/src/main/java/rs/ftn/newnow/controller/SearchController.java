@@ -28,10 +28,16 @@ public class SearchController {
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String address,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(searchService.searchLocationsByCursor(q, type, address, cursor, size));
+            }
             Page<LocationDTO> locations = searchService.searchLocations(q, type, address, page, size);
             return ResponseEntity.ok(locations);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             log.error("Error searching locations", e);
             return ResponseEntity.internalServerError()
@@ -51,11 +57,18 @@ public class SearchController {
             @RequestParam(required = false) Boolean past,
             @RequestParam(required = false) Boolean future,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(searchService.searchEventsByCursor(
+                        type, locationId, address, minPrice, maxPrice, startDate, endDate, past, future, cursor, size));
+            }
             Page<EventDTO> events = searchService.searchEvents(
                     type, locationId, address, minPrice, maxPrice, startDate, endDate, past, future, page, size);
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             log.error("Error searching events", e);
             return ResponseEntity.internalServerError()
@@ -4,6 +4,8 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import rs.ftn.newnow.dto.*;
 import rs.ftn.newnow.exception.FileSizeExceededException;
+import rs.ftn.newnow.exception.PasswordHashingBusyException;
 import rs.ftn.newnow.service.UserService;
 
 import java.util.List;
@@ -137,6 +140,11 @@ public class UserController {
         } catch (IllegalArgumentException e) {
             log.error("Validation error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            log.warn("Password change rejected while password hashing is saturated");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(PasswordHashingBusyException.RETRY_AFTER_SECONDS))
+                    .body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to change password", e);
             return ResponseEntity.internalServerError().body(new MessageResponse("Failed to change password"));
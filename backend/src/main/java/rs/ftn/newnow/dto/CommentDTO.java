@@ -16,5 +16,6 @@ public class CommentDTO {
     private LocalDateTime createdAt;
     private UserBasicDTO author;
     private Long parentCommentId;
+    private Integer depth;
     private List<CommentDTO> replies;
 }
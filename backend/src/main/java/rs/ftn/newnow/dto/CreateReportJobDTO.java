@@ -0,0 +1,30 @@
+package rs.ftn.newnow.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateReportJobDTO {
+
+    @NotBlank(message = "Report type is required")
+    private String type;
+
+    private String period = "monthly";
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Min(value = 1, message = "Limit must be between 1 and 100")
+    @Max(value = 100, message = "Limit must be between 1 and 100")
+    private Integer limit = 10;
+
+    private String direction = "desc";
+}
@@ -0,0 +1,21 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DimensionDistributionDTO {
+    // counts.get(i) is the number of ratings with score i + 1
+    private List<Long> counts;
+    private Long total;
+    private Double average;
+    private Integer p25;
+    private Integer median;
+    private Integer p75;
+    private Integer p90;
+}
@@ -0,0 +1,18 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Integer rank;
+    private Long locationId;
+    private String locationName;
+    private String locationType;
+    private Long reviewCount;
+    private Double averageRating;
+    private Long eventCount;
+}
@@ -0,0 +1,19 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationLeaderboardDTO {
+    private String period;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String sortBy;
+    private List<LeaderboardEntryDTO> entries;
+}
@@ -0,0 +1,19 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationTimeSeriesDTO {
+    private Long locationId;
+    private String granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<TimeSeriesPointDTO> points;
+}
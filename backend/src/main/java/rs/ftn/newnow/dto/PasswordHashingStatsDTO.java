@@ -0,0 +1,20 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+    private Integer strength;
+    private Integer threads;
+    private Integer activeHashes;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long completedHashes;
+    private Long rejectedHashes;
+    private Double averageHashMillis;
+    private Double maxHashMillis;
+}
@@ -0,0 +1,22 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingAggregateDTO {
+    private String locationType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long locationCount;
+    private Long reviewCount;
+    private Double averagePerformance;
+    private Double averageSoundAndLighting;
+    private Double averageVenue;
+    private Double averageOverallImpression;
+}
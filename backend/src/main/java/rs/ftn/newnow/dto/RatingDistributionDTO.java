@@ -0,0 +1,16 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDistributionDTO {
+    private String scope;
+    private Long id;
+    private Map<String, DimensionDistributionDTO> dimensions;
+}
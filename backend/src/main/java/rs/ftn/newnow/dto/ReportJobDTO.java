@@ -0,0 +1,22 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private String type;
+    private Long locationId;
+    private String status;
+    private Boolean cached;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+    private Object result;
+    private String error;
+}
@@ -3,7 +3,9 @@ package rs.ftn.newnow.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import rs.ftn.newnow.model.Rate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -18,4 +20,16 @@ public class ReviewDetailsDTO {
     private UserBasicDTO author;
     private EventBasicDTO event;
     private RateDetailsDTO ratings;
+
+    // Flat constructor used by the JPQL projections in ReviewRepository
+    public ReviewDetailsDTO(Long id, LocalDateTime createdAt, String comment, Integer eventCount, Boolean hidden,
+                            Long authorId, String authorName, String authorEmail,
+                            Long eventId, String eventName, String eventType, LocalDate eventDate, Boolean eventRecurrent,
+                            Integer performance, Integer soundAndLighting, Integer venue, Integer overallImpression) {
+        this(id, createdAt, comment, eventCount, hidden,
+                new UserBasicDTO(authorId, authorName, authorEmail),
+                new EventBasicDTO(eventId, eventName, eventType, eventDate, eventRecurrent),
+                new RateDetailsDTO(performance, soundAndLighting, venue, overallImpression,
+                        Rate.averageOf(performance, soundAndLighting, venue, overallImpression)));
+    }
 }
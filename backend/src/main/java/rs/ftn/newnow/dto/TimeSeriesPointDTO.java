@@ -0,0 +1,17 @@
+package rs.ftn.newnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPointDTO {
+    private LocalDate bucketStart;
+    private Long reviewCount;
+    private Double averageRating;
+    private Long eventCount;
+}
@@ -0,0 +1,11 @@
+package rs.ftn.newnow.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+
+    // Seconds a client should wait before retrying; hashes take a fraction of that
+    public static final int RETRY_AFTER_SECONDS = 1;
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
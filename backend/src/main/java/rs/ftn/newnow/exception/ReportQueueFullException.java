@@ -0,0 +1,11 @@
+package rs.ftn.newnow.exception;
+
+public class ReportQueueFullException extends RuntimeException {
+
+    // Reports take seconds, so retrying sooner only refills the queue
+    public static final int RETRY_AFTER_SECONDS = 10;
+
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
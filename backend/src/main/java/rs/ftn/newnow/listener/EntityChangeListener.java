@@ -0,0 +1,35 @@
+package rs.ftn.newnow.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that republishes flushed writes as {@link EntityChangedEvent}s,
+ * so caches derived from the database see changes made through any repository.
+ * Instantiated by Hibernate through Spring's bean container.
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.ChangeType.PERSISTED));
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.ChangeType.REMOVED));
+    }
+}
@@ -0,0 +1,26 @@
+package rs.ftn.newnow.listener;
+
+public class EntityChangedEvent {
+
+    public enum ChangeType {
+        PERSISTED,
+        UPDATED,
+        REMOVED
+    }
+
+    private final Object entity;
+    private final ChangeType changeType;
+
+    public EntityChangedEvent(Object entity, ChangeType changeType) {
+        this.entity = entity;
+        this.changeType = changeType;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+}
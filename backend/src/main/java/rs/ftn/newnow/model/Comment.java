@@ -13,7 +13,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+    indexes = {
+        @Index(name = "idx_comments_path", columnList = "path"),
+        @Index(name = "idx_comments_review_depth_path", columnList = "review_id, depth, path")
+    })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +25,9 @@ import java.util.Set;
 @EqualsAndHashCode(exclude = {"user", "review", "parentComment", "replies"})
 public class Comment {
 
+    public static final int MAX_PATH_LENGTH = 760;
+    public static final int PATH_SEGMENT_LENGTH = 9;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +42,14 @@ public class Comment {
     @Column(nullable = false)
     private Boolean deleted = false;
 
+    // Materialized path: one fixed-width base36 id segment per ancestor, ending with this comment's own,
+    // so a subtree is the contiguous range of paths starting with the subtree root's path
+    @Column(nullable = false, length = MAX_PATH_LENGTH)
+    private String path;
+
+    @Column(nullable = false)
+    private Integer depth;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -55,5 +70,25 @@ public class Comment {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        path = parentComment != null ? parentComment.getPath() : "";
+        depth = parentComment != null ? parentComment.getDepth() + 1 : 0;
+    }
+
+    // The id is only known once the row is inserted; the completed path is flushed as an update
+    @PostPersist
+    protected void onCreated() {
+        path = path + pathSegment(id);
+    }
+
+    public static String pathSegment(Long id) {
+        String encoded = Long.toString(id, 36);
+        return "0".repeat(PATH_SEGMENT_LENGTH - 1 - encoded.length()) + encoded + "/";
+    }
+
+    /**
+     * Exclusive upper bound of the paths in the subtree rooted at {@code path}.
+     */
+    public static String subtreeUpperBound(String path) {
+        return path.substring(0, path.length() - 1) + (char) ('/' + 1);
     }
 }
@@ -8,18 +8,26 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import rs.ftn.newnow.listener.EntityChangeListener;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "events")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "events",
+    indexes = {
+        @Index(name = "idx_events_deleted_date_id", columnList = "deleted, date, id"),
+        @Index(name = "idx_events_location_date", columnList = "location_id, date"),
+        @Index(name = "idx_events_deleted_price", columnList = "deleted, price"),
+        @Index(name = "idx_events_deleted_recurrent_date", columnList = "deleted, recurrent, date")
+    })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = {"location", "reviews", "image"})
-@EqualsAndHashCode(exclude = {"location", "reviews", "image"})
+@ToString(exclude = {"location", "reviews", "images"})
+@EqualsAndHashCode(exclude = {"location", "reviews", "images"})
 public class Event {
 
     @Id
@@ -51,6 +59,8 @@ public class Event {
     @Column(nullable = false)
     private Boolean deleted = false;
 
+    private String imageUrl;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "location_id", nullable = false)
     private Location location;
@@ -58,6 +68,6 @@ public class Event {
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Review> reviews = new HashSet<>();
 
-    @OneToOne(mappedBy = "event", cascade = CascadeType.ALL)
-    private Image image;
+    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<Image> images = new HashSet<>();
 }
@@ -7,13 +7,16 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import rs.ftn.newnow.listener.EntityChangeListener;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "locations")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "locations",
+    indexes = @Index(name = "idx_locations_deleted_id", columnList = "deleted, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +45,12 @@ public class Location {
     @Column(nullable = false)
     private Double totalRating = 0.0;
 
+    @Column(nullable = false)
+    private Double ratingSum = 0.0;
+
+    @Column(nullable = false)
+    private Long ratingCount = 0L;
+
     @NotBlank
     @Column(nullable = false)
     private String type;
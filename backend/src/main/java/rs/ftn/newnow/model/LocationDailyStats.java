@@ -0,0 +1,74 @@
+package rs.ftn.newnow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "location_daily_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_location_daily_stats_location_date",
+        columnNames = {"location_id", "date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"location", "reviewers"})
+@EqualsAndHashCode(exclude = {"location"})
+public class LocationDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Location location;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    // Each rating dimension is optional, so sums carry their own counts
+    @Column(name = "performance_sum", nullable = false)
+    private Long performanceSum = 0L;
+
+    @Column(name = "performance_count", nullable = false)
+    private Long performanceCount = 0L;
+
+    @Column(name = "sound_and_lighting_sum", nullable = false)
+    private Long soundAndLightingSum = 0L;
+
+    @Column(name = "sound_and_lighting_count", nullable = false)
+    private Long soundAndLightingCount = 0L;
+
+    @Column(name = "venue_sum", nullable = false)
+    private Long venueSum = 0L;
+
+    @Column(name = "venue_count", nullable = false)
+    private Long venueCount = 0L;
+
+    @Column(name = "overall_impression_sum", nullable = false)
+    private Long overallImpressionSum = 0L;
+
+    @Column(name = "overall_impression_count", nullable = false)
+    private Long overallImpressionCount = 0L;
+
+    @Column(name = "events_held", nullable = false)
+    private Long eventsHeld = 0L;
+
+    // HyperLogLog registers over reviewer ids; merged across days to count distinct reviewers in a range
+    @Column(nullable = false, length = 1024)
+    private byte[] reviewers;
+}
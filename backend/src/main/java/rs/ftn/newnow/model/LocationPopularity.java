@@ -0,0 +1,41 @@
+package rs.ftn.newnow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "location_popularity",
+    indexes = @Index(name = "idx_location_popularity_rank", columnList = "review_count DESC, rating_sum DESC"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"location"})
+@EqualsAndHashCode(exclude = {"location"})
+public class LocationPopularity {
+
+    @Id
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Location location;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    // Sum of overallImpression; within equal review counts it orders like the average
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    private LocalDateTime lastReviewAt;
+}
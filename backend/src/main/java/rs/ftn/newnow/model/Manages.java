@@ -4,10 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import rs.ftn.newnow.listener.EntityChangeListener;
 
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "manages")
 @Data
 @NoArgsConstructor
@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import rs.ftn.newnow.listener.EntityChangeListener;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "rates")
 @Data
 @NoArgsConstructor
@@ -33,26 +35,20 @@ public class Rate {
     private Review review;
 
     public Double getAverageRating() {
+        return averageOf(performance, soundAndLighting, venue, overallImpression);
+    }
+
+    public static Double averageOf(Integer... scores) {
         int count = 0;
         int sum = 0;
-        
-        if (performance != null) {
-            sum += performance;
-            count++;
-        }
-        if (soundAndLighting != null) {
-            sum += soundAndLighting;
-            count++;
-        }
-        if (venue != null) {
-            sum += venue;
-            count++;
-        }
-        if (overallImpression != null) {
-            sum += overallImpression;
-            count++;
+
+        for (Integer score : scores) {
+            if (score != null) {
+                sum += score;
+                count++;
+            }
         }
-        
+
         return count > 0 ? (double) sum / count : 0.0;
     }
 }
@@ -0,0 +1,34 @@
+package rs.ftn.newnow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import rs.ftn.newnow.model.enums.HistogramScope;
+
+@Entity
+@Table(name = "rating_histograms",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rating_histograms_scope",
+        columnNames = {"scope", "scope_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"counts"})
+public class RatingHistogram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HistogramScope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    // Big-endian int counters, one per dimension and score, laid out dimension by dimension
+    @Column(nullable = false, length = 160)
+    private byte[] counts;
+}
@@ -6,13 +6,16 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import rs.ftn.newnow.listener.EntityChangeListener;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "reviews")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "reviews",
+    indexes = @Index(name = "idx_reviews_location_created_id", columnList = "location_id, created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,26 @@
+package rs.ftn.newnow.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens",
+    indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    // The token's jti claim
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    // Copied from the token's exp; past it the token is rejected anyway and the row can go
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -20,8 +20,8 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
-@ToString(exclude = {"reviews", "managedLocations", "comments", "profileImage"})
-@EqualsAndHashCode(exclude = {"reviews", "managedLocations", "comments", "profileImage"})
+@ToString(exclude = {"reviews", "managedLocations", "comments", "images"})
+@EqualsAndHashCode(exclude = {"reviews", "managedLocations", "comments", "images"})
 public class User {
 
     @Id
@@ -52,6 +52,8 @@ public class User {
 
     private String city;
 
+    private String avatarUrl;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
@@ -67,8 +69,9 @@ public class User {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Comment> comments = new HashSet<>();
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Image profileImage;
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<Image> images = new HashSet<>();
+
 
     @PrePersist
     protected void onCreate() {
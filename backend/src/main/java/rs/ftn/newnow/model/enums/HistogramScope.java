@@ -0,0 +1,6 @@
+package rs.ftn.newnow.model.enums;
+
+public enum HistogramScope {
+    LOCATION,
+    EVENT
+}
@@ -0,0 +1,8 @@
+package rs.ftn.newnow.model.enums;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,6 +1,9 @@
 package rs.ftn.newnow.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,11 +19,31 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
            "AND c.deleted = false ORDER BY c.createdAt ASC")
     List<Comment> findByReviewIdAndNotDeleted(@Param("reviewId") Long reviewId);
     
-    @Query("SELECT c FROM Comment c WHERE c.parentComment.id = :parentCommentId " +
-           "AND c.deleted = false ORDER BY c.createdAt ASC")
-    List<Comment> findByParentCommentIdAndNotDeleted(@Param("parentCommentId") Long parentCommentId);
+    // Authors come with their eagerly mapped roles so no per-author selects follow
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user u LEFT JOIN FETCH u.roles " +
+           "WHERE c.review.id = :reviewId AND c.deleted = false ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findWithAuthorsByReviewId(@Param("reviewId") Long reviewId);
     
     @Query("SELECT c FROM Comment c WHERE c.id = :id AND c.deleted = false")
     Optional<Comment> findByIdAndNotDeleted(@Param("id") Long id);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user u " +
+           "WHERE c.review.id = :reviewId AND c.depth = 0 AND c.deleted = false " +
+           "AND c.path > :afterPath ORDER BY c.path ASC")
+    Slice<Comment> findRootsAfter(@Param("reviewId") Long reviewId,
+                                  @Param("afterPath") String afterPath,
+                                  Pageable pageable);
+
+    // Descendants in depth-first order: the subtree is the path range (afterPath, upperBound)
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user u " +
+           "WHERE c.path > :afterPath AND c.path < :upperBound AND c.deleted = false " +
+           "ORDER BY c.path ASC")
+    Slice<Comment> findSubtreeAfter(@Param("afterPath") String afterPath,
+                                    @Param("upperBound") String upperBound,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.deleted = true WHERE c.path > :path AND c.path < :upperBound")
+    int markSubtreeDeleted(@Param("path") String path, @Param("upperBound") String upperBound);
 }
 
@@ -2,7 +2,10 @@ package rs.ftn.newnow.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,9 +16,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+
+    // Event listings show the location name, so fetch it with the page instead of once per location
+    @Override
+    @EntityGraph(attributePaths = "location")
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
     
-    @Query("SELECT e FROM Event e WHERE e.deleted = false AND e.date = :date")
+    @Query("SELECT e FROM Event e JOIN FETCH e.location WHERE e.deleted = false AND e.date = :date")
     List<Event> findByDate(@Param("date") LocalDate date);
     
     @Query("SELECT e FROM Event e WHERE e.deleted = false AND e.date = :date " +
@@ -25,6 +33,9 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.deleted = false AND e.location.id = :locationId")
     List<Event> findByLocationId(@Param("locationId") Long locationId);
     
+    @Query("SELECT e.id FROM Event e WHERE e.location.id = :locationId")
+    List<Long> findAllIdsByLocationId(@Param("locationId") Long locationId);
+    
     List<Event> findByTypeContainingIgnoreCase(String type);
     
     @Query("SELECT e FROM Event e WHERE e.location.id = :locationId " +
@@ -41,26 +52,6 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT e FROM Event e WHERE e.deleted = false " +
-           "AND (:type IS NULL OR LOWER(e.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
-           "AND (:locationId IS NULL OR e.location.id = :locationId) " +
-           "AND (:address IS NULL OR LOWER(e.address) LIKE LOWER(CONCAT('%', :address, '%'))) " +
-           "AND (:minPrice IS NULL OR e.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR e.price <= :maxPrice) " +
-           "AND (:isFree IS NULL OR (:isFree = true AND e.price = 0) OR (:isFree = false AND e.price > 0)) " +
-           "AND (:isRegular IS NULL OR e.recurrent = :isRegular) " +
-           "AND (:date IS NULL OR e.date = :date)")
-    Page<Event> findByFilters(
-            @Param("type") String type,
-            @Param("locationId") Long locationId,
-            @Param("address") String address,
-            @Param("minPrice") Double minPrice,
-            @Param("maxPrice") Double maxPrice,
-            @Param("isFree") Boolean isFree,
-            @Param("isRegular") Boolean isRegular,
-            @Param("date") LocalDate date,
-            Pageable pageable);
-    
     @Query("SELECT e FROM Event e WHERE e.id = :id AND e.deleted = false")
     Optional<Event> findByIdAndNotDeleted(@Param("id") Long id);
     
@@ -68,44 +59,19 @@ public interface EventRepository extends JpaRepository<Event, Long> {
            "AND e.recurrent = true AND e.deleted = false " +
            "AND e.date <= :untilDate")
     Long countOccurrencesUntilDate(@Param("eventId") Long eventId, @Param("untilDate") LocalDate untilDate);
+
+    @Query("SELECT e.id, e.type, e.address FROM Event e")
+    List<Object[]> findSearchableText();
     
-    @Query("SELECT e FROM Event e WHERE e.deleted = false " +
-           "AND (:type IS NULL OR LOWER(e.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
-           "AND (:locationId IS NULL OR e.location.id = :locationId) " +
-           "AND (:address IS NULL OR LOWER(e.address) LIKE LOWER(CONCAT('%', :address, '%'))) " +
-           "AND (:minPrice IS NULL OR e.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR e.price <= :maxPrice) " +
-           "AND (:startDate IS NULL OR e.date >= :startDate) " +
-           "AND (:endDate IS NULL OR e.date <= :endDate)")
-    Page<Event> searchEvents(
-            @Param("type") String type,
-            @Param("locationId") Long locationId,
-            @Param("address") String address,
-            @Param("minPrice") Double minPrice,
-            @Param("maxPrice") Double maxPrice,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            Pageable pageable);
-    
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.location.id = :locationId " +
-           "AND e.date BETWEEN :startDate AND :endDate AND e.deleted = false")
-    Long countByLocationAndDateRange(
-            @Param("locationId") Long locationId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
-    
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.location.id = :locationId AND e.deleted = false")
-    Long countByLocation(@Param("locationId") Long locationId);
-    
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.location.id = :locationId " +
-           "AND e.recurrent = :recurrent AND e.deleted = false")
-    Long countByLocationAndRecurrent(@Param("locationId") Long locationId, @Param("recurrent") Boolean recurrent);
-    
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.location.id = :locationId " +
-           "AND e.price = :price AND e.deleted = false")
-    Long countByLocationAndPrice(@Param("locationId") Long locationId, @Param("price") Double price);
+    @Query("SELECT COUNT(e), " +
+           "SUM(CASE WHEN e.recurrent = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.recurrent = false THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.price = 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.price > 0 THEN 1 ELSE 0 END) " +
+           "FROM Event e WHERE e.location.id = :locationId AND e.deleted = false")
+    List<Object[]> aggregateCountsByLocation(@Param("locationId") Long locationId);
     
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.location.id = :locationId " +
-           "AND e.price > :price AND e.deleted = false")
-    Long countByLocationAndPriceGreaterThan(@Param("locationId") Long locationId, @Param("price") Double price);
+    @Query("SELECT e.date, COUNT(e) FROM Event e WHERE e.location.id = :locationId AND e.deleted = false " +
+           "GROUP BY e.date")
+    List<Object[]> countDailyByLocation(@Param("locationId") Long locationId);
 }
@@ -0,0 +1,115 @@
+package rs.ftn.newnow.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import rs.ftn.newnow.model.Event;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Event search predicates. Each factory returns {@code null} for a filter that was not
+ * supplied, so a composed specification only contains the conditions actually requested
+ * and the database can plan each filter combination against a matching index.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> notDeleted() {
+        return (root, query, cb) -> cb.equal(root.get("deleted"), false);
+    }
+
+    public static Specification<Event> typeContains(String type) {
+        if (type == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("type")), "%" + type.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    public static Specification<Event> addressContains(String address) {
+        if (address == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(cb.lower(root.get("address")), "%" + address.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    public static Specification<Event> atLocation(Long locationId) {
+        if (locationId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("location").get("id"), locationId);
+    }
+
+    public static Specification<Event> priceAtLeast(Double minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Event> priceAtMost(Double maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Event> free(Boolean isFree) {
+        if (isFree == null) {
+            return null;
+        }
+        return (root, query, cb) -> isFree
+                ? cb.equal(root.get("price"), 0.0)
+                : cb.greaterThan(root.get("price"), 0.0);
+    }
+
+    public static Specification<Event> recurrent(Boolean isRegular) {
+        if (isRegular == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("recurrent"), isRegular);
+    }
+
+    public static Specification<Event> onDate(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("date"), date);
+    }
+
+    public static Specification<Event> dateFrom(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), startDate);
+    }
+
+    public static Specification<Event> dateTo(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), endDate);
+    }
+
+    public static Specification<Event> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Keyset predicate for {@code (date, id)} ascending order: rows strictly after the given one.
+     */
+    public static Specification<Event> after(LocalDate afterDate, Long afterId) {
+        if (afterDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("date"), afterDate),
+                cb.or(cb.greaterThan(root.get("date"), afterDate),
+                        cb.greaterThan(root.get("id"), afterId)));
+    }
+}
@@ -0,0 +1,67 @@
+package rs.ftn.newnow.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rs.ftn.newnow.model.LocationDailyStats;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface LocationDailyStatsRepository extends JpaRepository<LocationDailyStats, Long> {
+
+    // A no-op update rather than DO NOTHING: H2 only emulates the conflict clause through MERGE for updates.
+    // Concurrent first writes of a day both get past this; the later one waits for the earlier one's row
+    @Modifying
+    @Query("INSERT INTO LocationDailyStats (locationId, date, reviewCount, performanceSum, performanceCount, " +
+           "soundAndLightingSum, soundAndLightingCount, venueSum, venueCount, overallImpressionSum, " +
+           "overallImpressionCount, eventsHeld, reviewers) " +
+           "VALUES (:locationId, :date, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, :reviewers) " +
+           "ON CONFLICT (locationId, date) DO UPDATE SET reviewCount = reviewCount")
+    int insertIfAbsent(@Param("locationId") Long locationId, @Param("date") LocalDate date,
+                       @Param("reviewers") byte[] reviewers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LocationDailyStats s WHERE s.locationId = :locationId AND s.date = :date")
+    Optional<LocationDailyStats> findForUpdate(@Param("locationId") Long locationId, @Param("date") LocalDate date);
+
+    @Query("SELECT s FROM LocationDailyStats s WHERE s.locationId = :locationId " +
+           "AND s.date BETWEEN :startDate AND :endDate ORDER BY s.date")
+    List<LocationDailyStats> findByLocationAndDateRange(
+            @Param("locationId") Long locationId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT s FROM LocationDailyStats s WHERE s.locationId = :locationId")
+    List<LocationDailyStats> findByLocation(@Param("locationId") Long locationId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.date, s.reviewCount, s.performanceSum, s.performanceCount, " +
+           "s.soundAndLightingSum, s.soundAndLightingCount, s.venueSum, s.venueCount, " +
+           "s.overallImpressionSum, s.overallImpressionCount, s.eventsHeld " +
+           "FROM LocationDailyStats s WHERE s.locationId = :locationId " +
+           "AND s.date BETWEEN :startDate AND :endDate ORDER BY s.date")
+    Stream<Object[]> streamByLocationAndDateRange(
+            @Param("locationId") Long locationId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT l.id, l.name, l.type, COALESCE(SUM(s.reviewCount), 0), " +
+           "COALESCE(SUM(s.overallImpressionSum), 0), COALESCE(SUM(s.overallImpressionCount), 0), " +
+           "COALESCE(SUM(s.eventsHeld), 0) " +
+           "FROM Location l LEFT JOIN LocationDailyStats s ON s.locationId = l.id " +
+           "AND s.date BETWEEN :startDate AND :endDate " +
+           "WHERE l.deleted = false " +
+           "GROUP BY l.id, l.name, l.type")
+    List<Object[]> sumByLocationBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
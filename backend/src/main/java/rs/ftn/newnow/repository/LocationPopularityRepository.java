@@ -0,0 +1,43 @@
+package rs.ftn.newnow.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rs.ftn.newnow.model.LocationPopularity;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LocationPopularityRepository extends JpaRepository<LocationPopularity, Long> {
+
+    // A single upsert, so two first reviews of a location committing together cannot collide on the key
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO LocationPopularity (locationId, reviewCount, ratingSum, lastReviewAt) " +
+           "VALUES (:locationId, :initialCount, :initialRating, :reviewedAt) " +
+           "ON CONFLICT (locationId) DO UPDATE SET " +
+           "lastReviewAt = CASE WHEN lastReviewAt IS NULL OR lastReviewAt < :reviewedAt " +
+           "THEN :reviewedAt ELSE lastReviewAt END, " +
+           "reviewCount = reviewCount + :countDelta, " +
+           "ratingSum = ratingSum + :ratingDelta")
+    int upsertDelta(
+            @Param("locationId") Long locationId,
+            @Param("countDelta") long countDelta,
+            @Param("ratingDelta") long ratingDelta,
+            @Param("initialCount") long initialCount,
+            @Param("initialRating") long initialRating,
+            @Param("reviewedAt") LocalDateTime reviewedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM LocationPopularity p")
+    int deleteAllInBulk();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO LocationPopularity (locationId, reviewCount, ratingSum, lastReviewAt) " +
+           "SELECT r.location.id, COUNT(r), SUM(COALESCE(rt.overallImpression, 0)), MAX(r.createdAt) " +
+           "FROM Review r LEFT JOIN r.rate rt " +
+           "WHERE r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
+           "GROUP BY r.location.id")
+    int rebuildFromReviews();
+}
@@ -1,20 +1,41 @@
 package rs.ftn.newnow.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rs.ftn.newnow.model.Location;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
+
+    // Average of the non-null Rate scores of a single review, mirroring Rate.getAverageRating()
+    String REVIEW_AVERAGE = "COALESCE((COALESCE(rt.performance, 0) + COALESCE(rt.soundAndLighting, 0) " +
+            "+ COALESCE(rt.venue, 0) + COALESCE(rt.overallImpression, 0)) * 1.0 / NULLIF(" +
+            "(CASE WHEN rt.performance IS NULL THEN 0 ELSE 1 END) + " +
+            "(CASE WHEN rt.soundAndLighting IS NULL THEN 0 ELSE 1 END) + " +
+            "(CASE WHEN rt.venue IS NULL THEN 0 ELSE 1 END) + " +
+            "(CASE WHEN rt.overallImpression IS NULL THEN 0 ELSE 1 END), 0), 0.0)";
+
+    String RATED_REVIEWS_OF_LOCATION = "FROM Review r LEFT JOIN r.rate rt WHERE r.location.id = l.id " +
+            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false";
     
     Optional<Location> findByIdAndDeletedFalse(Long id);
+
+    // Serializes writers of a location's rollup rows; review writes already hold it via applyRatingDelta
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l.id FROM Location l WHERE l.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
     
     Page<Location> findByDeletedFalse(Pageable pageable);
     
@@ -27,9 +48,9 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
     @Query("SELECT l FROM Location l WHERE l.deleted = false ORDER BY l.totalRating DESC")
     List<Location> findTopByOrderByTotalRatingDesc(Pageable pageable);
     
-    @Query("SELECT l FROM Location l LEFT JOIN l.reviews r " +
-           "WHERE l.deleted = false AND r.deleted = false " +
-           "GROUP BY l.id ORDER BY COUNT(r.id) DESC, AVG(r.rate.overallImpression) DESC")
+    @Query("SELECT l FROM LocationPopularity p JOIN p.location l " +
+           "WHERE l.deleted = false AND p.reviewCount > 0 " +
+           "ORDER BY p.reviewCount DESC, p.ratingSum DESC")
     List<Location> findPopularLocations(Pageable pageable);
     
     @Query("SELECT l FROM Location l WHERE l.deleted = false " +
@@ -43,4 +64,113 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
            "AND (:type IS NULL OR LOWER(l.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
            "AND (:address IS NULL OR LOWER(l.address) LIKE LOWER(CONCAT('%', :address, '%')))")
     Page<Location> searchByTypeAndAddress(@Param("type") String type, @Param("address") String address, Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<Location> searchLocationsAmong(@Param("search") String search, @Param("ids") Collection<Long> ids,
+                                        Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%')))")
+    Page<Location> searchByQueryAmong(@Param("query") String query, @Param("ids") Collection<Long> ids,
+                                      Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (:type IS NULL OR LOWER(l.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
+           "AND (:address IS NULL OR LOWER(l.address) LIKE LOWER(CONCAT('%', :address, '%')))")
+    Page<Location> searchByTypeAndAddressAmong(@Param("type") String type, @Param("address") String address,
+                                               @Param("ids") Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT l.id FROM Location l WHERE l.deleted = false ORDER BY l.id")
+    List<Long> findActiveIds();
+
+    @Query("SELECT l.id FROM Location l WHERE l.deleted = false " +
+           "AND (:type IS NULL OR LOWER(l.type) = LOWER(:type))")
+    List<Long> findActiveIdsByType(@Param("type") String type);
+
+    @Query("SELECT l.id, l.name, l.address, l.type, l.description FROM Location l")
+    List<Object[]> findSearchableText();
+
+    // Keyset variants: rows after :afterId in id order, a null :afterId reads the first slice
+    @Query("SELECT l FROM Location l WHERE l.deleted = false " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> findByDeletedFalseAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchLocationsAfter(@Param("search") String search, @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchByQueryAfter(@Param("query") String query, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (:type IS NULL OR LOWER(l.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
+           "AND (:address IS NULL OR LOWER(l.address) LIKE LOWER(CONCAT('%', :address, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchByTypeAndAddressAfter(@Param("type") String type, @Param("address") String address,
+                                                @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchLocationsAfterAmong(@Param("search") String search, @Param("ids") Collection<Long> ids,
+                                              @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (LOWER(l.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.address) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.type) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(l.description) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchByQueryAfterAmong(@Param("query") String query, @Param("ids") Collection<Long> ids,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Location l WHERE l.deleted = false AND l.id IN :ids " +
+           "AND (:afterId IS NULL OR l.id > :afterId) " +
+           "AND (:type IS NULL OR LOWER(l.type) LIKE LOWER(CONCAT('%', :type, '%'))) " +
+           "AND (:address IS NULL OR LOWER(l.address) LIKE LOWER(CONCAT('%', :address, '%'))) " +
+           "ORDER BY l.id ASC")
+    Slice<Location> searchByTypeAndAddressAfterAmong(@Param("type") String type, @Param("address") String address,
+                                                     @Param("ids") Collection<Long> ids,
+                                                     @Param("afterId") Long afterId, Pageable pageable);
+
+    // totalRating is assigned first: MySQL evaluates SET assignments left to right
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Location l SET " +
+           "l.totalRating = CASE WHEN l.ratingCount + :countDelta > 0 " +
+           "THEN (l.ratingSum + :sumDelta) / (l.ratingCount + :countDelta) ELSE 0.0 END, " +
+           "l.ratingSum = l.ratingSum + :sumDelta, " +
+           "l.ratingCount = l.ratingCount + :countDelta " +
+           "WHERE l.id = :id")
+    int applyRatingDelta(@Param("id") Long id, @Param("sumDelta") double sumDelta, @Param("countDelta") long countDelta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Location l SET " +
+           "l.totalRating = COALESCE((SELECT AVG(" + REVIEW_AVERAGE + ") " + RATED_REVIEWS_OF_LOCATION + "), 0.0), " +
+           "l.ratingSum = COALESCE((SELECT SUM(" + REVIEW_AVERAGE + ") " + RATED_REVIEWS_OF_LOCATION + "), 0.0), " +
+           "l.ratingCount = (SELECT COUNT(r) " + RATED_REVIEWS_OF_LOCATION + ")")
+    int rebuildRatingAggregates();
 }
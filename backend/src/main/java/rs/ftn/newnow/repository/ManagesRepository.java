@@ -33,4 +33,13 @@ public interface ManagesRepository extends JpaRepository<Manages, Long> {
     List<Manages> findActiveManagersByLocation(
             @Param("locationId") Long locationId,
             @Param("now") LocalDate now);
+
+    // Rows of (manages id, user id, user email, location id, end date) for the manager authorization index
+    @Query("SELECT m.id, m.user.id, m.user.email, m.location.id, m.endDate FROM Manages m " +
+           "WHERE m.endDate IS NULL OR m.endDate > :now")
+    List<Object[]> findActiveAssignments(@Param("now") LocalDate now);
+
+    @Query("SELECT m.id, m.user.id, m.user.email, m.location.id, m.endDate FROM Manages m " +
+           "WHERE m.user.id = :userId AND (m.endDate IS NULL OR m.endDate > :now)")
+    List<Object[]> findActiveAssignmentsByUserId(@Param("userId") Long userId, @Param("now") LocalDate now);
 }
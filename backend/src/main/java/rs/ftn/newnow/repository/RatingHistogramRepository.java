@@ -0,0 +1,44 @@
+package rs.ftn.newnow.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rs.ftn.newnow.model.RatingHistogram;
+import rs.ftn.newnow.model.enums.HistogramScope;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RatingHistogramRepository extends JpaRepository<RatingHistogram, Long> {
+
+    @Query("SELECT h FROM RatingHistogram h WHERE h.scope = :scope AND h.scopeId = :scopeId")
+    Optional<RatingHistogram> findByScope(@Param("scope") HistogramScope scope, @Param("scopeId") Long scopeId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM RatingHistogram h WHERE h.scope = :scope AND h.scopeId = :scopeId")
+    Optional<RatingHistogram> findForUpdate(@Param("scope") HistogramScope scope, @Param("scopeId") Long scopeId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM RatingHistogram h WHERE h.scope = :scope AND h.scopeId IN :scopeIds")
+    List<RatingHistogram> findAllForUpdate(@Param("scope") HistogramScope scope,
+                                           @Param("scopeIds") Collection<Long> scopeIds);
+
+    // Same conflict clause as LocationDailyStatsRepository.insertIfAbsent: a no-op update H2 can emulate
+    @Modifying
+    @Query("INSERT INTO RatingHistogram (scope, scopeId, counts) VALUES (:scope, :scopeId, :counts) " +
+           "ON CONFLICT (scope, scopeId) DO UPDATE SET scopeId = scopeId")
+    int insertIfAbsent(@Param("scope") HistogramScope scope, @Param("scopeId") Long scopeId,
+                       @Param("counts") byte[] counts);
+
+    @Modifying
+    @Query("INSERT INTO RatingHistogram (scope, scopeId, counts) VALUES (:scope, :scopeId, :counts) " +
+           "ON CONFLICT (scope, scopeId) DO UPDATE SET counts = :counts")
+    int upsertCounts(@Param("scope") HistogramScope scope, @Param("scopeId") Long scopeId,
+                     @Param("counts") byte[] counts);
+}
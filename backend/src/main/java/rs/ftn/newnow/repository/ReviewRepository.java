@@ -1,103 +1,279 @@
 package rs.ftn.newnow.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import rs.ftn.newnow.dto.ReviewDetailsDTO;
 import rs.ftn.newnow.model.Review;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     @Query("SELECT r FROM Review r WHERE r.id = :id AND r.deleted = false")
     Optional<Review> findByIdAndNotDeleted(@Param("id") Long id);
+
+    boolean existsByIdAndDeletedFalse(Long id);
     
-    // Public queries - exclude hidden reviews
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    // Entity listings fetch the associations their mappers read; the author is left out because
+    // User.roles is eager and would cost one select per author
+    @Query(value = "SELECT r FROM Review r JOIN FETCH r.event JOIN FETCH r.location LEFT JOIN FETCH r.rate " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false")
     Page<Review> findByLocationIdAndNotDeleted(@Param("locationId") Long locationId, Pageable pageable);
+
+    // Keyset variants ordered by (createdAt, id); a null :afterCreatedAt reads the first slice
+    @Query("SELECT r FROM Review r JOIN FETCH r.event JOIN FETCH r.location LEFT JOIN FETCH r.rate " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
+           "AND (:afterCreatedAt IS NULL OR (r.createdAt <= :afterCreatedAt " +
+           "AND (r.createdAt < :afterCreatedAt OR r.id < :afterId))) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findByLocationIdOrderByDateBefore(@Param("locationId") Long locationId,
+                                                    @Param("afterCreatedAt") java.time.LocalDateTime afterCreatedAt,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.event JOIN FETCH r.location LEFT JOIN FETCH r.rate " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
+           "AND (:afterCreatedAt IS NULL OR (r.createdAt >= :afterCreatedAt " +
+           "AND (r.createdAt > :afterCreatedAt OR r.id > :afterId))) " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    Slice<Review> findByLocationIdOrderByDateAfter(@Param("locationId") Long locationId,
+                                                   @Param("afterCreatedAt") java.time.LocalDateTime afterCreatedAt,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.event JOIN FETCH r.location LEFT JOIN FETCH r.rate " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false " +
+           "ORDER BY r.createdAt DESC")
+    List<Review> findTop3ByLocationId(@Param("locationId") Long locationId, Pageable pageable);
+
+    @Query(value = "SELECT r FROM Review r JOIN FETCH r.event JOIN FETCH r.location LEFT JOIN FETCH r.rate " +
+           "WHERE r.user.id = :userId AND r.deleted = false",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.user.id = :userId AND r.deleted = false")
+    Page<Review> findByUserIdAndNotDeleted(@Param("userId") Long userId, Pageable pageable);
+
+    // Review detail listings are projected straight into DTOs, author included
+    // Public queries - exclude hidden reviews
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
+           "ORDER BY rt.overallImpression DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false")
+    Page<ReviewDetailsDTO> findByLocationIdOrderByRating(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
-           "ORDER BY r.rate.overallImpression DESC")
-    Page<Review> findByLocationIdOrderByRating(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY r.createdAt DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false")
+    Page<ReviewDetailsDTO> findByLocationIdOrderByDate(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
-           "ORDER BY r.createdAt DESC")
-    Page<Review> findByLocationIdOrderByDate(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY rt.overallImpression ASC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false")
+    Page<ReviewDetailsDTO> findByLocationIdOrderByRatingAsc(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
-           "ORDER BY r.rate.overallImpression ASC")
-    Page<Review> findByLocationIdOrderByRatingAsc(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY r.createdAt ASC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false")
+    Page<ReviewDetailsDTO> findByLocationIdOrderByDateAsc(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query("SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
+           "AND (:afterCreatedAt IS NULL OR (r.createdAt <= :afterCreatedAt " +
+           "AND (r.createdAt < :afterCreatedAt OR r.id < :afterId))) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<ReviewDetailsDTO> findDetailsByLocationIdOrderByDateBefore(@Param("locationId") Long locationId,
+                                                                     @Param("afterCreatedAt") java.time.LocalDateTime afterCreatedAt,
+                                                                     @Param("afterId") Long afterId,
+                                                                     Pageable pageable);
+
+    @Query("SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false AND r.hidden = false " +
-           "ORDER BY r.createdAt ASC")
-    Page<Review> findByLocationIdOrderByDateAsc(@Param("locationId") Long locationId, Pageable pageable);
+           "AND (:afterCreatedAt IS NULL OR (r.createdAt >= :afterCreatedAt " +
+           "AND (r.createdAt > :afterCreatedAt OR r.id > :afterId))) " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    Slice<ReviewDetailsDTO> findDetailsByLocationIdOrderByDateAfter(@Param("locationId") Long locationId,
+                                                                    @Param("afterCreatedAt") java.time.LocalDateTime afterCreatedAt,
+                                                                    @Param("afterId") Long afterId,
+                                                                    Pageable pageable);
     
     // Manager queries - include hidden reviews
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false " +
-           "ORDER BY r.rate.overallImpression DESC")
-    Page<Review> findByLocationIdIncludingHiddenOrderByRating(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY rt.overallImpression DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false")
+    Page<ReviewDetailsDTO> findByLocationIdIncludingHiddenOrderByRating(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false " +
-           "ORDER BY r.createdAt DESC")
-    Page<Review> findByLocationIdIncludingHiddenOrderByDate(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY r.createdAt DESC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false")
+    Page<ReviewDetailsDTO> findByLocationIdIncludingHiddenOrderByDate(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    // Rows arrive in fetch-size batches; on MySQL this needs useCursorFetch=true on the URL
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false " +
-           "ORDER BY r.rate.overallImpression ASC")
-    Page<Review> findByLocationIdIncludingHiddenOrderByRatingAsc(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY r.createdAt, r.id")
+    Stream<ReviewDetailsDTO> streamDetailsByLocationId(@Param("locationId") Long locationId);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false " +
-           "ORDER BY r.createdAt ASC")
-    Page<Review> findByLocationIdIncludingHiddenOrderByDateAsc(@Param("locationId") Long locationId, Pageable pageable);
+           "ORDER BY rt.overallImpression ASC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false")
+    Page<ReviewDetailsDTO> findByLocationIdIncludingHiddenOrderByRatingAsc(@Param("locationId") Long locationId, Pageable pageable);
     
-    @Query("SELECT r FROM Review r WHERE r.location.id = :locationId " +
+    @Query(value = "SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false " +
+           "ORDER BY r.createdAt ASC",
+           countQuery = "SELECT COUNT(r) FROM Review r " +
+           "WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false")
+    Page<ReviewDetailsDTO> findByLocationIdIncludingHiddenOrderByDateAsc(@Param("locationId") Long locationId, Pageable pageable);
+    
+    @Query("SELECT new rs.ftn.newnow.dto.ReviewDetailsDTO(r.id, r.createdAt, r.comment, r.eventCount, r.hidden, " +
+           "u.id, u.name, u.email, e.id, e.name, e.type, e.date, e.recurrent, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression) " +
+           "FROM Review r JOIN r.user u JOIN r.event e LEFT JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false " +
            "ORDER BY r.createdAt DESC")
-    List<Review> findTop3ByLocationId(@Param("locationId") Long locationId, Pageable pageable);
+    List<ReviewDetailsDTO> findLatestDetailsByLocationId(@Param("locationId") Long locationId, Pageable pageable);
     
     @Query("SELECT r FROM Review r WHERE r.user.id = :userId AND r.deleted = false")
     List<Review> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT r FROM Review r WHERE r.user.id = :userId AND r.deleted = false")
-    Page<Review> findByUserIdAndNotDeleted(@Param("userId") Long userId, Pageable pageable);
-    
     @Query("SELECT r FROM Review r WHERE r.event.id = :eventId " +
            "AND r.user.id = :userId AND r.deleted = false")
     Optional<Review> findByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId);
     
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.location.id = :locationId " +
-           "AND r.createdAt BETWEEN :startDate AND :endDate " +
+    @Query("SELECT CAST(r.createdAt AS LocalDate), COUNT(r), " +
+           "SUM(rt.performance), COUNT(rt.performance), " +
+           "SUM(rt.soundAndLighting), COUNT(rt.soundAndLighting), " +
+           "SUM(rt.venue), COUNT(rt.venue), " +
+           "SUM(rt.overallImpression), COUNT(rt.overallImpression) " +
+           "FROM Review r LEFT JOIN r.rate rt WHERE r.location.id = :locationId " +
+           "AND r.deleted = false AND r.deletedByManager = false " +
+           "GROUP BY CAST(r.createdAt AS LocalDate)")
+    List<Object[]> aggregateDailyByLocation(@Param("locationId") Long locationId);
+    
+    @Query("SELECT DISTINCT CAST(r.createdAt AS LocalDate), r.user.id FROM Review r " +
+           "WHERE r.location.id = :locationId " +
            "AND r.deleted = false AND r.deletedByManager = false")
-    Long countByLocationAndDateRange(
-            @Param("locationId") Long locationId,
-            @Param("startDate") java.time.LocalDateTime startDate,
-            @Param("endDate") java.time.LocalDateTime endDate);
+    List<Object[]> findDailyReviewersByLocation(@Param("locationId") Long locationId);
     
-    @Query("SELECT AVG(r.rate.overallImpression) FROM Review r WHERE r.location.id = :locationId " +
-           "AND r.createdAt BETWEEN :startDate AND :endDate " +
+    @Query("SELECT r.event.id, rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression, " +
+           "COUNT(r) FROM Review r JOIN r.rate rt " +
+           "WHERE r.location.id = :locationId AND r.deleted = false AND r.deletedByManager = false " +
+           "GROUP BY r.event.id, rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression")
+    List<Object[]> countRatingCombinationsByLocation(@Param("locationId") Long locationId);
+    
+    @Query("SELECT r.id, r.location.id, r.event.id, r.createdAt, " +
+           "rt.performance, rt.soundAndLighting, rt.venue, rt.overallImpression " +
+           "FROM Review r LEFT JOIN r.rate rt " +
+           "WHERE r.deleted = false AND r.deletedByManager = false " +
+           "ORDER BY r.createdAt, r.id")
+    List<Object[]> findColumnarRows();
+    
+    @Query("SELECT COUNT(r), " +
+           "SUM(rt.performance), COUNT(rt.performance), " +
+           "SUM(rt.soundAndLighting), COUNT(rt.soundAndLighting), " +
+           "SUM(rt.venue), COUNT(rt.venue), " +
+           "SUM(rt.overallImpression), COUNT(rt.overallImpression) " +
+           "FROM Review r LEFT JOIN r.rate rt " +
+           "WHERE r.createdAt >= :startDate AND r.createdAt < :endDate " +
+           "AND (:type IS NULL OR LOWER(r.location.type) = LOWER(:type)) " +
+           "AND r.location.deleted = false " +
            "AND r.deleted = false AND r.deletedByManager = false")
-    Double calculateAverageRatingByLocationAndDateRange(
-            @Param("locationId") Long locationId,
+    List<Object[]> aggregateRatingsByLocationType(
+            @Param("type") String type,
             @Param("startDate") java.time.LocalDateTime startDate,
             @Param("endDate") java.time.LocalDateTime endDate);
     
-    @Query("SELECT COUNT(DISTINCT r.user.id) FROM Review r WHERE r.location.id = :locationId " +
-           "AND r.createdAt BETWEEN :startDate AND :endDate " +
+    @Query("SELECT DISTINCT r.user.id FROM Review r WHERE r.location.id = :locationId " +
+           "AND r.createdAt >= :startDate AND r.createdAt < :endDate " +
            "AND r.deleted = false AND r.deletedByManager = false")
-    Long countDistinctUsersByLocationAndDateRange(
+    List<Long> findReviewerIdsByLocationBetween(
             @Param("locationId") Long locationId,
             @Param("startDate") java.time.LocalDateTime startDate,
             @Param("endDate") java.time.LocalDateTime endDate);
@@ -0,0 +1,148 @@
+package rs.ftn.newnow.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import rs.ftn.newnow.dto.PasswordHashingStatsDTO;
+import rs.ftn.newnow.exception.PasswordHashingBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Runs every hash and verification of the wrapped encoder on a small fixed pool with a bounded
+ * queue, so a burst of logins cannot occupy more cores than the pool has. Callers still wait for
+ * their result, but once the queue is full or the wait runs out they fail fast with
+ * {@link PasswordHashingBusyException} instead of piling up.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completedHashes = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejectedHashes = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, Duration maxWait) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = maxWait.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Highest strength from {@link #MIN_STRENGTH} up whose hash still fits in {@code target},
+     * extrapolated from the best of three timed hashes at the minimum (each step doubles the cost).
+     */
+    public static int calibrateStrength(Duration target, IntToLongFunction hashNanosAtStrength) {
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            nanos = Math.min(nanos, hashNanosAtStrength.applyAsLong(MIN_STRENGTH));
+        }
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && nanos * 2 <= target.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordHashingStatsDTO getStats() {
+        long completed = completedHashes.sum();
+        return new PasswordHashingStatsDTO(
+                strength,
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                completed,
+                rejectedHashes.sum(),
+                completed == 0 ? 0.0 : totalHashNanos.sum() / (double) completed / 1_000_000,
+                maxHashNanos.get() / 1_000_000.0
+        );
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(hash));
+        } catch (RejectedExecutionException e) {
+            rejectedHashes.increment();
+            log.warn("Password hashing queue is full ({} waiting)", queueCapacity);
+            throw new PasswordHashingBusyException("Server is busy, please retry shortly");
+        }
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedHashes.increment();
+            throw new PasswordHashingBusyException("Server is busy, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> hash) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hash.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            completedHashes.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+}
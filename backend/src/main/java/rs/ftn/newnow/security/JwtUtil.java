@@ -1,6 +1,7 @@
 package rs.ftn.newnow.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -8,22 +9,41 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Long expiration;
+    private final SecretKey signKey;
+    private final JwtParser parser;
+    private final int verifiedCacheSize;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // Claims of tokens whose signature already checked out, held until the token expires
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
     
     private static final Long REFRESH_TOKEN_EXPIRATION = 604800000L;
 
+    public static final String ROLES_CLAIM = "roles";
+    private static final String TYPE_CLAIM = "type";
+    private static final String REFRESH_TYPE = "refresh";
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${app.security.verified-token-cache.max-size:10000}") int verifiedCacheSize) {
+        this.expiration = expiration;
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser().verifyWith(signKey).build();
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -37,46 +57,85 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims, so a request only parses its token once.
+     * Throws {@link io.jsonwebtoken.JwtException} for tokens that are forged, malformed or expired.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * Roles signed into an access token, or {@code null} for tokens issued without them.
+     */
+    public List<String> extractRoles(Claims claims) {
+        if (!(claims.get(ROLES_CLAIM) instanceof Collection<?> roles)) {
+            return null;
+        }
+        return roles.stream().map(String::valueOf).toList();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM));
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long now = System.currentTimeMillis();
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (isUnexpired(cached, now)) {
+                return cached;
+            }
+            verifiedTokens.remove(token, cached);
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        remember(token, claims, now);
+        return claims;
+    }
+
+    private void remember(String token, Claims claims, long now) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(entry -> !isUnexpired(entry, now));
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                // Still full of live tokens; start over rather than scan on every miss
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, claims);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static boolean isUnexpired(Claims claims, long now) {
+        return claims.getExpiration().getTime() > now;
     }
 
-    public String generateToken(String email) {
+    public String generateToken(String email, Collection<String> roles) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, List.copyOf(roles));
         return createToken(claims, email, expiration);
     }
     
     public String generateRefreshToken(String email) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put(TYPE_CLAIM, REFRESH_TYPE);
         return createToken(claims, email, REFRESH_TOKEN_EXPIRATION);
     }
 
     private String createToken(Map<String, Object> claims, String email, Long expirationTime) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
-    }
-
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(email) && isUnexpired(claims, System.currentTimeMillis()));
     }
 }
@@ -0,0 +1,80 @@
+package rs.ftn.newnow.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rs.ftn.newnow.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by caller, each a single {@link AtomicLong} updated by compare-and-set.
+ * A bucket stores the time at which it would be full again (the generic cell rate algorithm),
+ * so taking a token never locks and needs no refill timer. The buckets live in a
+ * {@link ConcurrentHashMap}, whose bins are locked independently only when a key is first added.
+ */
+@Component
+public class RateLimiter {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final int maxBuckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties.getIdleTimeout(), properties.getMaxBuckets(), System::nanoTime);
+    }
+
+    RateLimiter(Duration idleTimeout, int maxBuckets, LongSupplier clock) {
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the bucket for {@code key}, holding {@code capacity} tokens that refill
+     * over {@code period}. Returns 0 on success, otherwise the nanoseconds until a token frees up.
+     */
+    public long tryAcquire(String key, int capacity, Duration period) {
+        long now = clock.getAsLong();
+        long interval = period.toNanos() / capacity;
+        long burst = interval * (capacity - 1);
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evictIdle(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            long wait = start - burst - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        evictIdle(clock.getAsLong());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle(long now) {
+        buckets.values().removeIf(bucket -> now - bucket.get() >= idleNanos);
+    }
+}
@@ -0,0 +1,115 @@
+package rs.ftn.newnow.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.model.RevokedToken;
+import rs.ftn.newnow.repository.RevokedTokenRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Token ids that were revoked before their expiry, persisted in {@code revoked_tokens}.
+ * Every authenticated request asks {@link #isRevoked}, so an in-memory Bloom filter answers
+ * first and only a possible hit reaches the table. Expired rows are deleted on a schedule and
+ * the filter is rebuilt from what remains.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate separateTransaction;
+    private final int expectedRevocations;
+
+    private volatile BloomFilter filter;
+    // While a rebuild reads the table, new revocations also go into the filter that will replace the current one
+    private volatile BloomFilter nextFilter;
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.security.revocation.expected-size:100000}") int expectedRevocations) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Records the token id as revoked until {@code expiresAt}. Returns {@code false} when it
+     * was already revoked, which lets single-use tokens be consumed exactly once.
+     */
+    public boolean revoke(String jti, Date expiresAt) {
+        if (jti == null) {
+            return false;
+        }
+        remember(jti);
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        boolean inserted;
+        try {
+            inserted = Boolean.TRUE.equals(separateTransaction.execute(status -> {
+                if (revokedTokenRepository.existsById(jti)) {
+                    return false;
+                }
+                revokedTokenRepository.saveAndFlush(new RevokedToken(jti, expiry));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request revoked the same id first
+            inserted = false;
+        }
+        // Again after commit, in case a rebuild started reading the table in between
+        remember(jti);
+        return inserted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.security.revocation.compact-cron:0 15 * * * *}")
+    public synchronized void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = separateTransaction.execute(status -> revokedTokenRepository.deleteExpired(now));
+
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+        nextFilter = rebuilt;
+        List<String> remaining = separateTransaction.execute(status -> revokedTokenRepository.findUnexpiredJtis(now));
+        if (remaining.size() > expectedRevocations / 2) {
+            // Keep the false positive rate near its target as revocations outgrow the configured size
+            rebuilt = new BloomFilter(remaining.size() * 2, FALSE_POSITIVE_RATE);
+            nextFilter = rebuilt;
+            remaining = separateTransaction.execute(status -> revokedTokenRepository.findUnexpiredJtis(now));
+        }
+        remaining.forEach(rebuilt::add);
+        filter = rebuilt;
+        nextFilter = null;
+        log.info("Compacted revoked tokens: removed {} expired, {} still revoked", deleted, remaining.size());
+    }
+
+    private void remember(String jti) {
+        // Read the pending filter first: if a rebuild swaps in between, the current filter is already the new one
+        BloomFilter next = nextFilter;
+        if (next != null) {
+            next.add(jti);
+        }
+        filter.add(jti);
+    }
+}
@@ -0,0 +1,274 @@
+package rs.ftn.newnow.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.ftn.newnow.dto.CreateReportJobDTO;
+import rs.ftn.newnow.dto.ReportJobDTO;
+import rs.ftn.newnow.exception.ReportQueueFullException;
+import rs.ftn.newnow.listener.EntityChangedEvent;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Rate;
+import rs.ftn.newnow.model.Review;
+import rs.ftn.newnow.model.User;
+import rs.ftn.newnow.model.enums.ReportJobStatus;
+import rs.ftn.newnow.model.enums.Role;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs location summary and top-rating reports as jobs on a small bounded pool, so long custom
+ * ranges never hold request threads. Finished results are memoized per location, report and
+ * range; a committed review or event write at a location drops the results it could change.
+ */
+@Service
+@Slf4j
+public class AnalyticsReportService {
+
+    static final String SUMMARY = "summary";
+    static final String TOP_RATINGS = "top-ratings";
+
+    private final AnalyticsService analyticsService;
+    private final int cacheSize;
+    private final long retentionNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    // Bumped on every invalidating write; a result computed across a bump is not memoized
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final Map<ReportKey, Object> results;
+
+    @Autowired
+    public AnalyticsReportService(AnalyticsService analyticsService,
+                                  @Value("${app.analytics.reports.threads:2}") int threads,
+                                  @Value("${app.analytics.reports.queue-capacity:32}") int queueCapacity,
+                                  @Value("${app.analytics.reports.cache-size:256}") int cacheSize,
+                                  @Value("${app.analytics.reports.retention:PT15M}") Duration retention) {
+        this.analyticsService = analyticsService;
+        this.cacheSize = cacheSize;
+        this.retentionNanos = retention.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-report-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReportKey, Object> eldest) {
+                return size() > AnalyticsReportService.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Queues a report, or completes it at once when a memoized result is still valid.
+     * Request validation happens here so bad input fails on the submitting request.
+     */
+    public ReportJobDTO submit(Long locationId, CreateReportJobDTO request, User currentUser) {
+        ReportKey key = keyOf(locationId, request);
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, currentUser);
+
+        Object memoized;
+        synchronized (results) {
+            memoized = results.get(key);
+        }
+        if (memoized != null) {
+            job.complete(memoized, true);
+            jobs.put(job.id, job);
+            return job.toDTO();
+        }
+
+        long generation = generations.getOrDefault(locationId, 0L);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, generation));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ReportQueueFullException("Too many reports are queued, try again later");
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Returns the job if it exists and was submitted by {@code currentUser} or the user is an admin.
+     */
+    public Optional<ReportJobDTO> getJob(String jobId, User currentUser) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        boolean isAdmin = currentUser.getRoles().contains(Role.ROLE_ADMIN);
+        if (!isAdmin && !job.owner.getId().equals(currentUser.getId())) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDTO());
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        Long locationId;
+        LocalDate date;
+        if (event.getEntity() instanceof Review review) {
+            locationId = review.getLocation().getId();
+            date = review.getCreatedAt().toLocalDate();
+        } else if (event.getEntity() instanceof Rate rate && rate.getReview() != null) {
+            locationId = rate.getReview().getLocation().getId();
+            date = rate.getReview().getCreatedAt().toLocalDate();
+        } else if (event.getEntity() instanceof Event changed && changed.getLocation() != null) {
+            // The previous event date is unknown here, so every range of the location goes
+            locationId = changed.getLocation().getId();
+            date = null;
+        } else {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(locationId, date);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(locationId, date);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.reports.sweep-interval:PT1M}")
+    public void evictFinishedJobs() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.finishedAt >= retentionNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void invalidate(Long locationId, LocalDate date) {
+        generations.merge(locationId, 1L, Long::sum);
+        synchronized (results) {
+            results.keySet().removeIf(key -> key.locationId().equals(locationId) && key.covers(date));
+        }
+    }
+
+    private void run(ReportJob job, long generation) {
+        job.status = ReportJobStatus.RUNNING;
+        try {
+            ReportKey key = job.key;
+            Object result = switch (key.type()) {
+                case SUMMARY -> analyticsService.getLocationSummary(key.locationId(), "custom",
+                        key.startDate(), key.endDate(), job.owner);
+                case TOP_RATINGS -> analyticsService.getTopRatings(key.locationId(), key.limit(),
+                        key.direction(), job.owner);
+                default -> throw new IllegalStateException("Unknown report type " + key.type());
+            };
+            synchronized (results) {
+                if (generations.getOrDefault(key.locationId(), 0L) == generation) {
+                    results.put(key, result);
+                }
+            }
+            job.complete(result, false);
+        } catch (RuntimeException e) {
+            log.warn("Report {} for location {} failed: {}", job.key.type(), job.key.locationId(), e.getMessage());
+            job.fail(e.getMessage());
+        }
+    }
+
+    private ReportKey keyOf(Long locationId, CreateReportJobDTO request) {
+        String type = request.getType().trim().toLowerCase();
+        switch (type) {
+            case SUMMARY -> {
+                AnalyticsService.DateRange range = analyticsService.calculateDateRange(
+                        request.getPeriod() != null ? request.getPeriod() : "monthly",
+                        request.getStartDate(), request.getEndDate());
+                return new ReportKey(SUMMARY, locationId, range.getStartDate(), range.getEndDate(), 0, null);
+            }
+            case TOP_RATINGS -> {
+                int limit = request.getLimit() != null ? request.getLimit() : 10;
+                String direction = "asc".equalsIgnoreCase(request.getDirection()) ? "asc" : "desc";
+                return new ReportKey(TOP_RATINGS, locationId, null, null, limit, direction);
+            }
+            default -> throw new IllegalArgumentException("Report type must be one of: " + SUMMARY + ", " + TOP_RATINGS);
+        }
+    }
+
+    /**
+     * Identity of a memoized result; a {@code null} range means the report covers all time.
+     */
+    private record ReportKey(String type, Long locationId, LocalDate startDate, LocalDate endDate,
+                             int limit, String direction) {
+
+        boolean covers(LocalDate date) {
+            return date == null || startDate == null
+                    || (!date.isBefore(startDate) && !date.isAfter(endDate));
+        }
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final ReportKey key;
+        private final User owner;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+        private volatile boolean cached;
+        private volatile Object result;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile long finishedAt;
+
+        ReportJob(String id, ReportKey key, User owner) {
+            this.id = id;
+            this.key = key;
+            this.owner = owner;
+        }
+
+        void complete(Object result, boolean cached) {
+            this.result = result;
+            this.cached = cached;
+            finish(ReportJobStatus.COMPLETED);
+        }
+
+        void fail(String error) {
+            this.error = error;
+            finish(ReportJobStatus.FAILED);
+        }
+
+        boolean isFinished() {
+            ReportJobStatus current = status;
+            return current == ReportJobStatus.COMPLETED || current == ReportJobStatus.FAILED;
+        }
+
+        // Status is written last so a reader that sees it finished also sees the outcome
+        private void finish(ReportJobStatus finalStatus) {
+            completedAt = LocalDateTime.now();
+            finishedAt = System.nanoTime();
+            status = finalStatus;
+        }
+
+        ReportJobDTO toDTO() {
+            ReportJobStatus current = status;
+            return new ReportJobDTO(id, key.type(), key.locationId(), current.name(), cached, submittedAt,
+                    completedAt, current == ReportJobStatus.COMPLETED ? result : null, error);
+        }
+    }
+}
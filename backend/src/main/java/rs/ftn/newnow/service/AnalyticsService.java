@@ -8,13 +8,21 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.*;
+import rs.ftn.newnow.model.Event;
 import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.model.LocationDailyStats;
 import rs.ftn.newnow.model.User;
+import rs.ftn.newnow.model.enums.HistogramScope;
 import rs.ftn.newnow.model.enums.Role;
 import rs.ftn.newnow.repository.*;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,18 +31,25 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AnalyticsService {
 
+    static final int MAX_TIME_SERIES_POINTS = 400;
+    static final int MAX_LEADERBOARD_SIZE = 500;
+
     private final LocationRepository locationRepository;
     private final EventRepository eventRepository;
     private final ReviewRepository reviewRepository;
-    private final ManagesRepository managesRepository;
+    private final ManagerAuthorizationIndex managerAuthorizationIndex;
+    private final LocationDailyStatsService locationDailyStatsService;
+    private final RatingHistogramService ratingHistogramService;
+    private final ReviewColumnStore reviewColumnStore;
+    private final LocationLeaderboardService locationLeaderboardService;
 
     public boolean isManagerOfLocation(Long locationId, String email) {
+        if (managerAuthorizationIndex.isManager(email, locationId)) {
+            return true;
+        }
         locationRepository.findByIdAndDeletedFalse(locationId)
                 .orElseThrow(() -> new IllegalArgumentException("Location not found"));
-
-        return managesRepository.findActiveManagersByLocation(locationId, LocalDate.now())
-                .stream()
-                .anyMatch(manages -> manages.getUser().getEmail().equals(email));
+        return false;
     }
 
     public LocationSummaryDTO getLocationSummary(Long locationId, String period, LocalDate startDate, LocalDate endDate, User currentUser) {
@@ -45,14 +60,8 @@ public class AnalyticsService {
 
         DateRange dateRange = calculateDateRange(period, startDate, endDate);
 
-        Long totalEvents = eventRepository.countByLocationAndDateRange(
-                locationId, dateRange.getStartDate(), dateRange.getEndDate());
-        Long totalReviews = reviewRepository.countByLocationAndDateRange(
-                locationId, dateRange.getStartDate().atStartOfDay(), dateRange.getEndDate().atTime(23, 59, 59));
-        Double averageRating = reviewRepository.calculateAverageRatingByLocationAndDateRange(
-                locationId, dateRange.getStartDate().atStartOfDay(), dateRange.getEndDate().atTime(23, 59, 59));
-        Long totalVisitors = reviewRepository.countDistinctUsersByLocationAndDateRange(
-                locationId, dateRange.getStartDate().atStartOfDay(), dateRange.getEndDate().atTime(23, 59, 59));
+        LocationDailyStatsService.Totals totals = LocationDailyStatsService.Totals.of(
+                locationDailyStatsService.findDays(locationId, dateRange.getStartDate(), dateRange.getEndDate()));
 
         LocationSummaryDTO summary = new LocationSummaryDTO();
         summary.setLocationId(locationId);
@@ -60,25 +69,67 @@ public class AnalyticsService {
         summary.setPeriod(period);
         summary.setStartDate(dateRange.getStartDate());
         summary.setEndDate(dateRange.getEndDate());
-        summary.setTotalEvents(totalEvents != null ? totalEvents : 0L);
-        summary.setTotalReviews(totalReviews != null ? totalReviews : 0L);
+        summary.setTotalEvents(totals.eventsHeld());
+        summary.setTotalReviews(totals.reviewCount());
+        Double averageRating = totals.averageOverallImpression();
         summary.setAverageRating(averageRating != null ? averageRating : 0.0);
-        summary.setTotalVisitors(totalVisitors != null ? totalVisitors : 0L);
+        summary.setTotalVisitors(totals.distinctReviewers());
 
         return summary;
     }
 
+    public LocationTimeSeriesDTO getLocationTimeSeries(Long locationId, String granularity, String period,
+                                                       LocalDate startDate, LocalDate endDate, User currentUser) {
+        validateAccess(locationId, currentUser);
+
+        locationRepository.findByIdAndDeletedFalse(locationId)
+                .orElseThrow(() -> new IllegalArgumentException("Location not found"));
+
+        Granularity bucketing = Granularity.parse(granularity);
+        DateRange dateRange = calculateDateRange(period, startDate, endDate);
+        if (dateRange.getStartDate().isAfter(dateRange.getEndDate())) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        // Empty buckets are kept so charts get a continuous axis
+        Map<LocalDate, List<LocationDailyStats>> buckets = new TreeMap<>();
+        for (LocalDate bucket = bucketing.bucketStart(dateRange.getStartDate());
+             !bucket.isAfter(dateRange.getEndDate()); bucket = bucketing.next(bucket)) {
+            if (buckets.size() == MAX_TIME_SERIES_POINTS) {
+                throw new IllegalArgumentException("Range has more than " + MAX_TIME_SERIES_POINTS
+                        + " points; use a coarser granularity");
+            }
+            buckets.put(bucket, new ArrayList<>());
+        }
+        for (LocationDailyStats day : locationDailyStatsService.findDays(
+                locationId, dateRange.getStartDate(), dateRange.getEndDate())) {
+            buckets.get(bucketing.bucketStart(day.getDate())).add(day);
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>(buckets.size());
+        buckets.forEach((bucketStart, days) -> {
+            LocationDailyStatsService.Totals totals = LocationDailyStatsService.Totals.of(days);
+            Double averageRating = totals.averageOverallImpression();
+            points.add(new TimeSeriesPointDTO(bucketStart, totals.reviewCount(),
+                    averageRating != null ? averageRating : 0.0, totals.eventsHeld()));
+        });
+
+        return new LocationTimeSeriesDTO(locationId, bucketing.name().toLowerCase(),
+                dateRange.getStartDate(), dateRange.getEndDate(), points);
+    }
+
     public EventCountsDTO getLocationEventCounts(Long locationId, User currentUser) {
         validateAccess(locationId, currentUser);
 
         locationRepository.findByIdAndDeletedFalse(locationId)
                 .orElseThrow(() -> new IllegalArgumentException("Location not found"));
 
-        Long totalEvents = eventRepository.countByLocation(locationId);
-        Long regularEvents = eventRepository.countByLocationAndRecurrent(locationId, true);
-        Long nonRegularEvents = eventRepository.countByLocationAndRecurrent(locationId, false);
-        Long freeEvents = eventRepository.countByLocationAndPrice(locationId, 0.0);
-        Long paidEvents = eventRepository.countByLocationAndPriceGreaterThan(locationId, 0.0);
+        Object[] row = eventRepository.aggregateCountsByLocation(locationId).get(0);
+        Long totalEvents = toLong(row[0]);
+        Long regularEvents = toLong(row[1]);
+        Long nonRegularEvents = toLong(row[2]);
+        Long freeEvents = toLong(row[3]);
+        Long paidEvents = toLong(row[4]);
 
         EventCountsDTO counts = new EventCountsDTO();
         counts.setTotalEvents(totalEvents != null ? totalEvents : 0L);
@@ -128,6 +179,71 @@ public class AnalyticsService {
         return topRatings;
     }
 
+    public RatingDistributionDTO getLocationRatingDistribution(Long locationId, User currentUser) {
+        validateAccess(locationId, currentUser);
+
+        locationRepository.findByIdAndDeletedFalse(locationId)
+                .orElseThrow(() -> new IllegalArgumentException("Location not found"));
+
+        return ratingHistogramService.getDistribution(HistogramScope.LOCATION, locationId);
+    }
+
+    public RatingDistributionDTO getEventRatingDistribution(Long locationId, Long eventId, User currentUser) {
+        validateAccess(locationId, currentUser);
+
+        Event event = eventRepository.findByIdAndNotDeleted(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+        if (!event.getLocation().getId().equals(locationId)) {
+            throw new IllegalArgumentException("Event does not belong to this location");
+        }
+
+        return ratingHistogramService.getDistribution(HistogramScope.EVENT, eventId);
+    }
+
+    /**
+     * Rating averages across every active location, optionally of one type, for reviews written in
+     * the period. Served from the column store once it is loaded, from SQL before that.
+     */
+    public RatingAggregateDTO getRatingAggregate(String type, String period, LocalDate startDate, LocalDate endDate) {
+        DateRange dateRange = calculateDateRange(period, startDate, endDate);
+        String locationType = type != null && !type.isBlank() ? type.trim() : null;
+
+        List<Long> locationIds = locationRepository.findActiveIdsByType(locationType);
+        ReviewColumnStore.RatingTotals totals;
+        if (reviewColumnStore.isReady()) {
+            BitSet locations = new BitSet();
+            locationIds.forEach(id -> locations.set(Math.toIntExact(id)));
+            totals = reviewColumnStore.aggregate(dateRange.getStartDate(), dateRange.getEndDate(), locations);
+        } else {
+            Object[] row = reviewRepository.aggregateRatingsByLocationType(locationType,
+                    dateRange.getStartDate().atStartOfDay(), dateRange.getEndDate().plusDays(1).atStartOfDay()).get(0);
+            long[] sums = new long[ReviewColumnStore.DIMENSIONS];
+            long[] counts = new long[ReviewColumnStore.DIMENSIONS];
+            for (int dimension = 0; dimension < ReviewColumnStore.DIMENSIONS; dimension++) {
+                sums[dimension] = toLongOrZero(row[1 + 2 * dimension]);
+                counts[dimension] = toLongOrZero(row[2 + 2 * dimension]);
+            }
+            totals = new ReviewColumnStore.RatingTotals(toLongOrZero(row[0]), sums, counts);
+        }
+
+        return new RatingAggregateDTO(locationType, dateRange.getStartDate(), dateRange.getEndDate(),
+                (long) locationIds.size(), totals.reviewCount(),
+                totals.average(0), totals.average(1), totals.average(2), totals.average(3));
+    }
+
+    public LocationLeaderboardDTO getLocationLeaderboard(String period, LocalDate startDate, LocalDate endDate,
+                                                         String sortBy, int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        DateRange dateRange = calculateDateRange(period, startDate, endDate);
+
+        List<LeaderboardEntryDTO> entries = locationLeaderboardService.getLeaderboard(
+                dateRange.getStartDate(), dateRange.getEndDate(), sortBy, limit);
+        return new LocationLeaderboardDTO(period, dateRange.getStartDate(), dateRange.getEndDate(),
+                sortBy.toLowerCase(), entries);
+    }
+
     public List<ReviewDTO> getLatestReviews(Long locationId, User currentUser) {
         validateAccess(locationId, currentUser);
 
@@ -151,16 +267,22 @@ public class AnalyticsService {
 
     private void validateAccess(Long locationId, User currentUser) {
         boolean isAdmin = currentUser.getRoles().contains(Role.ROLE_ADMIN);
-        boolean isManager = managesRepository.findActiveManagersByLocation(locationId, LocalDate.now())
-                .stream()
-                .anyMatch(manages -> manages.getUser().getId().equals(currentUser.getId()));
+        boolean isManager = managerAuthorizationIndex.isManager(currentUser.getId(), locationId);
 
         if (!isAdmin && !isManager) {
             throw new AccessDeniedException("User does not have permission to access this location's analytics");
         }
     }
 
-    private DateRange calculateDateRange(String period, LocalDate startDate, LocalDate endDate) {
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static long toLongOrZero(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    DateRange calculateDateRange(String period, LocalDate startDate, LocalDate endDate) {
         if ("custom".equalsIgnoreCase(period)) {
             if (startDate == null || endDate == null) {
                 throw new IllegalArgumentException("Start date and end date are required for custom period");
@@ -219,7 +341,36 @@ public class AnalyticsService {
         return dto;
     }
 
-    private static class DateRange {
+    private enum Granularity {
+        DAY, WEEK, MONTH;
+
+        static Granularity parse(String value) {
+            for (Granularity granularity : values()) {
+                if (granularity.name().equalsIgnoreCase(value)) {
+                    return granularity;
+                }
+            }
+            throw new IllegalArgumentException("Granularity must be one of: day, week, month");
+        }
+
+        LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(DayOfWeek.MONDAY);
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+
+    static class DateRange {
         private final LocalDate startDate;
         private final LocalDate endDate;
 
@@ -1,5 +1,7 @@
 package rs.ftn.newnow.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,7 +17,9 @@ import rs.ftn.newnow.model.User;
 import rs.ftn.newnow.repository.AccountRequestRepository;
 import rs.ftn.newnow.repository.UserRepository;
 import rs.ftn.newnow.security.JwtUtil;
+import rs.ftn.newnow.security.TokenRevocationStore;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +32,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationStore tokenRevocationStore;
 
     @Transactional
     public AccountRequest createRegistrationRequest(CreateAccountRequestDTO request) {
@@ -67,7 +72,8 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        Set<String> roles = user.getRoles().stream().map(Enum::name).collect(Collectors.toSet());
+        String token = jwtUtil.generateToken(user.getEmail(), roles);
         String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
 
         log.info("User logged in successfully: {}", request.getEmail());
@@ -77,7 +83,7 @@ public class AuthService {
                 refreshToken,
                 user.getEmail(),
                 user.getName(),
-                user.getRoles().stream().map(Enum::name).collect(Collectors.toSet())
+                roles
         );
     }
     
@@ -85,16 +91,19 @@ public class AuthService {
     public AuthResponse refreshToken(String refreshToken) {
         log.info("Processing refresh token request");
         
-        String email = jwtUtil.extractEmail(refreshToken);
-        
-        if (!jwtUtil.validateToken(refreshToken, email)) {
-            throw new IllegalArgumentException("Invalid refresh token");
+        Claims claims = parseRefreshToken(refreshToken);
+        String email = claims.getSubject();
+
+        // Refresh tokens are single use: consuming one revokes it, so a replayed copy is rejected
+        if (!tokenRevocationStore.revoke(claims.getId(), claims.getExpiration())) {
+            throw new IllegalArgumentException("Refresh token has already been used");
         }
         
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        String newToken = jwtUtil.generateToken(user.getEmail());
+        Set<String> roles = user.getRoles().stream().map(Enum::name).collect(Collectors.toSet());
+        String newToken = jwtUtil.generateToken(user.getEmail(), roles);
         String newRefreshToken = jwtUtil.generateRefreshToken(user.getEmail());
         
         log.info("Token refreshed successfully for user: {}", email);
@@ -104,7 +113,42 @@ public class AuthService {
                 newRefreshToken,
                 user.getEmail(),
                 user.getName(),
-                user.getRoles().stream().map(Enum::name).collect(Collectors.toSet())
+                roles
         );
     }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken == null) {
+            return;
+        }
+        Claims access = jwtUtil.parseToken(accessToken);
+        tokenRevocationStore.revoke(access.getId(), access.getExpiration());
+        log.info("Access token revoked for user: {}", access.getSubject());
+
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        try {
+            Claims refresh = jwtUtil.parseToken(refreshToken);
+            if (jwtUtil.isRefreshToken(refresh) && access.getSubject().equals(refresh.getSubject())) {
+                tokenRevocationStore.revoke(refresh.getId(), refresh.getExpiration());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // An expired or forged refresh token cannot be used anyway
+            log.info("Ignoring unusable refresh token on logout: {}", e.getMessage());
+        }
+    }
+
+    private Claims parseRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(refreshToken);
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        if (!jwtUtil.isRefreshToken(claims)) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        return claims;
+    }
 }
@@ -1,25 +1,28 @@
 package rs.ftn.newnow.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.CommentDTO;
 import rs.ftn.newnow.dto.CreateCommentDTO;
+import rs.ftn.newnow.dto.CursorPageResponse;
 import rs.ftn.newnow.dto.UserBasicDTO;
 import rs.ftn.newnow.model.Comment;
 import rs.ftn.newnow.model.Review;
 import rs.ftn.newnow.model.User;
 import rs.ftn.newnow.repository.CommentRepository;
-import rs.ftn.newnow.repository.ManagesRepository;
 import rs.ftn.newnow.repository.ReviewRepository;
 import rs.ftn.newnow.repository.UserRepository;
 import rs.ftn.newnow.exception.BusinessException;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -28,7 +31,7 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
-    private final ManagesRepository managesRepository;
+    private final ManagerAuthorizationIndex managerAuthorizationIndex;
 
     @Transactional
     public CommentDTO createComment(Long reviewId, CreateCommentDTO dto, String userEmail) {
@@ -39,11 +42,7 @@ public class CommentService {
                 .orElseThrow(() -> new BusinessException("Review not found"));
 
         // Check if user is manager of the location
-        boolean isManager = !managesRepository.findActiveManagement(
-                user.getId(), 
-                review.getLocation().getId(), 
-                LocalDate.now()
-        ).isEmpty();
+        boolean isManager = managerAuthorizationIndex.isManager(user.getId(), review.getLocation().getId());
 
         Comment comment = new Comment();
         comment.setText(dto.getText());
@@ -67,17 +66,18 @@ public class CommentService {
             if (parentComment.getParentComment() == null) {
                 // This is a reply to root comment (first level)
                 // Check if parent comment author is a manager
-                boolean parentIsManager = !managesRepository.findActiveManagement(
-                        parentComment.getUser().getId(), 
-                        review.getLocation().getId(), 
-                        LocalDate.now()
-                ).isEmpty();
+                boolean parentIsManager = managerAuthorizationIndex.isManager(
+                        parentComment.getUser().getId(), review.getLocation().getId());
                 
                 if (!parentIsManager) {
                     throw new BusinessException("You can only reply to manager's comments at this level");
                 }
             }
             // If parentComment.getParentComment() != null, this is third level or deeper - anyone can reply
+
+            if (parentComment.getPath().length() + Comment.PATH_SEGMENT_LENGTH > Comment.MAX_PATH_LENGTH) {
+                throw new BusinessException("Reply thread is too deep");
+            }
             
             comment.setParentComment(parentComment);
         } else {
@@ -94,17 +94,31 @@ public class CommentService {
 
     @Transactional(readOnly = true)
     public List<CommentDTO> getCommentTree(Long reviewId) {
-        reviewRepository.findByIdAndNotDeleted(reviewId)
-                .orElseThrow(() -> new BusinessException("Review not found"));
+        if (!reviewRepository.existsByIdAndDeletedFalse(reviewId)) {
+            throw new BusinessException("Review not found");
+        }
 
-        List<Comment> rootComments = commentRepository.findByReviewIdAndNotDeleted(reviewId)
-                .stream()
-                .filter(c -> c.getParentComment() == null)
-                .collect(Collectors.toList());
+        // Comments arrive oldest first, so every reply list is assembled in creation order.
+        // Replies to a deleted comment have no parent in the map and are left out, as before.
+        List<Comment> comments = commentRepository.findWithAuthorsByReviewId(reviewId);
+        Map<Long, CommentDTO> byId = new HashMap<>();
+        for (Comment comment : comments) {
+            byId.put(comment.getId(), mapToDTO(comment));
+        }
 
-        return rootComments.stream()
-                .map(this::mapToTreeDTO)
-                .collect(Collectors.toList());
+        List<CommentDTO> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            CommentDTO dto = byId.get(comment.getId());
+            if (dto.getParentCommentId() == null) {
+                roots.add(dto);
+            } else {
+                CommentDTO parent = byId.get(dto.getParentCommentId());
+                if (parent != null) {
+                    parent.getReplies().add(dto);
+                }
+            }
+        }
+        return roots;
     }
 
     @Transactional
@@ -121,11 +135,8 @@ public class CommentService {
 
         boolean isAuthor = comment.getUser().getId().equals(user.getId());
         
-        boolean isManager = !managesRepository.findActiveManagement(
-                user.getId(), 
-                comment.getReview().getLocation().getId(), 
-                LocalDate.now()
-        ).isEmpty();
+        boolean isManager = managerAuthorizationIndex.isManager(
+                user.getId(), comment.getReview().getLocation().getId());
 
         if (!isAuthor && !isManager) {
             throw new BusinessException("You can only delete your own comments or comments on your managed location");
@@ -133,6 +144,45 @@ public class CommentService {
 
         comment.setDeleted(true);
         commentRepository.save(comment);
+        // Replies under a deleted comment are never shown; marking them keeps subtree range scans exact
+        commentRepository.markSubtreeDeleted(comment.getPath(), Comment.subtreeUpperBound(comment.getPath()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentDTO> getTopLevelComments(Long reviewId, String cursor, int size) {
+        if (!reviewRepository.existsByIdAndDeletedFalse(reviewId)) {
+            throw new BusinessException("Review not found");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String afterPath = after != null ? after.getSortKey(Function.identity()) : "";
+
+        return toCursorPage(commentRepository.findRootsAfter(reviewId, afterPath, PageRequest.of(0, size)));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CommentDTO> getReplies(Long reviewId, Long commentId, String cursor, int size) {
+        Comment parent = commentRepository.findByIdAndNotDeleted(commentId)
+                .orElseThrow(() -> new BusinessException("Comment not found"));
+        if (!parent.getReview().getId().equals(reviewId)) {
+            throw new BusinessException("Comment does not belong to this review");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String afterPath = after != null ? after.getSortKey(Function.identity()) : parent.getPath();
+        if (!afterPath.startsWith(parent.getPath())) {
+            throw new BusinessException("Cursor does not belong to this comment");
+        }
+
+        return toCursorPage(commentRepository.findSubtreeAfter(
+                afterPath, Comment.subtreeUpperBound(parent.getPath()), PageRequest.of(0, size)));
+    }
+
+    private CursorPageResponse<CommentDTO> toCursorPage(Slice<Comment> comments) {
+        String nextCursor = null;
+        if (comments.hasNext()) {
+            Comment last = comments.getContent().get(comments.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getPath(), last.getId());
+        }
+        return new CursorPageResponse<>(comments.map(this::mapToDTO).getContent(), nextCursor, comments.hasNext());
     }
 
     private CommentDTO mapToDTO(Comment comment) {
@@ -141,6 +191,7 @@ public class CommentService {
         dto.setText(comment.getText());
         dto.setCreatedAt(comment.getCreatedAt());
         dto.setParentCommentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null);
+        dto.setDepth(comment.getDepth());
         dto.setReplies(new ArrayList<>());
 
         UserBasicDTO authorDTO = new UserBasicDTO();
@@ -151,15 +202,4 @@ public class CommentService {
 
         return dto;
     }
-
-    private CommentDTO mapToTreeDTO(Comment comment) {
-        CommentDTO dto = mapToDTO(comment);
-        
-        List<Comment> replies = commentRepository.findByParentCommentIdAndNotDeleted(comment.getId());
-        dto.setReplies(replies.stream()
-                .map(this::mapToTreeDTO)
-                .collect(Collectors.toList()));
-
-        return dto;
-    }
 }
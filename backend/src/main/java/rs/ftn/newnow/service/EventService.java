@@ -7,6 +7,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,13 +19,15 @@ import rs.ftn.newnow.model.Image;
 import rs.ftn.newnow.model.Location;
 import rs.ftn.newnow.model.User;
 import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.EventSpecifications;
 import rs.ftn.newnow.repository.ImageRepository;
 import rs.ftn.newnow.repository.LocationRepository;
-import rs.ftn.newnow.repository.ManagesRepository;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,10 +37,12 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
-    private final ManagesRepository managesRepository;
+    private final ManagerAuthorizationIndex managerAuthorizationIndex;
     private final ImageRepository imageRepository;
     private final FileStorageService fileStorageService;
     private final EntityManager entityManager;
+    private final SearchIndexService searchIndexService;
+    private final LocationDailyStatsService locationDailyStatsService;
 
     @Transactional(readOnly = true)
     public Page<EventDTO> searchEvents(String type, Long locationId, String address, 
@@ -46,8 +51,22 @@ public class EventService {
         log.info("Searching events with filters");
         Pageable pageable = PageRequest.of(page, size, Sort.by("date").ascending());
         
-        Page<Event> events = eventRepository.findByFilters(
-                type, locationId, address, priceMin, priceMax, isFree, isRegular, date, pageable);
+        Optional<Set<Long>> candidates = searchIndexService.eventCandidates(type, address);
+        if (candidates.isPresent() && candidates.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Specification<Event> filter = EventSpecifications.notDeleted()
+                .and(EventSpecifications.idIn(candidates.orElse(null)))
+                .and(EventSpecifications.typeContains(type))
+                .and(EventSpecifications.atLocation(locationId))
+                .and(EventSpecifications.addressContains(address))
+                .and(EventSpecifications.priceAtLeast(priceMin))
+                .and(EventSpecifications.priceAtMost(priceMax))
+                .and(EventSpecifications.free(isFree))
+                .and(EventSpecifications.recurrent(isRegular))
+                .and(EventSpecifications.onDate(date));
+        Page<Event> events = eventRepository.findAll(filter, pageable);
         
         return events.map(this::convertToDTO);
     }
@@ -88,9 +107,7 @@ public class EventService {
             throw new IllegalArgumentException("Cannot create event for deleted location");
         }
         
-        boolean isManager = managesRepository.findActiveManagement(
-                currentUser.getId(), locationId, LocalDate.now()).stream()
-                .anyMatch(m -> m.isActive());
+        boolean isManager = managerAuthorizationIndex.isManager(currentUser.getId(), locationId);
         
         if (!isManager) {
             throw new IllegalArgumentException("User is not a manager of this location");
@@ -107,6 +124,7 @@ public class EventService {
         event.setDeleted(false);
         
         Event savedEvent = eventRepository.save(event);
+        locationDailyStatsService.applyEvent(null, locationDailyStatsService.capture(savedEvent));
         
         String imageUrl = fileStorageService.saveImage(image, "events");
         Image eventImage = new Image();
@@ -115,7 +133,8 @@ public class EventService {
         Image savedImage = imageRepository.save(eventImage);
         
         // Update the event's image reference (bidirectional relationship)
-        savedEvent.setImage(savedImage);
+        savedEvent.getImages().add(savedImage);
+        savedEvent.setImageUrl(imageUrl);
         
         log.info("Successfully created event with ID: {}", savedEvent.getId());
         return convertToDTO(savedEvent);
@@ -128,14 +147,13 @@ public class EventService {
         Event event = eventRepository.findByIdAndNotDeleted(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
         
-        boolean isManager = managesRepository.findActiveManagement(
-                currentUser.getId(), event.getLocation().getId(), LocalDate.now()).stream()
-                .anyMatch(m -> m.isActive());
+        boolean isManager = managerAuthorizationIndex.isManager(currentUser.getId(), event.getLocation().getId());
         
         if (!isManager) {
             throw new IllegalArgumentException("User is not a manager of this event's location");
         }
         
+        LocationDailyStatsService.EventContribution before = locationDailyStatsService.capture(event);
         if (updateEventDTO.getName() != null) {
             event.setName(updateEventDTO.getName());
         }
@@ -156,6 +174,7 @@ public class EventService {
         }
         
         Event updatedEvent = eventRepository.save(event);
+        locationDailyStatsService.applyEvent(before, locationDailyStatsService.capture(updatedEvent));
         log.info("Successfully updated event with ID: {}", eventId);
         return convertToDTO(updatedEvent);
     }
@@ -167,16 +186,16 @@ public class EventService {
         Event event = eventRepository.findByIdAndNotDeleted(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
         
-        boolean isManager = managesRepository.findActiveManagement(
-                currentUser.getId(), event.getLocation().getId(), LocalDate.now()).stream()
-                .anyMatch(m -> m.isActive());
+        boolean isManager = managerAuthorizationIndex.isManager(currentUser.getId(), event.getLocation().getId());
         
         if (!isManager) {
             throw new IllegalArgumentException("User is not a manager of this event's location");
         }
         
+        LocationDailyStatsService.EventContribution before = locationDailyStatsService.capture(event);
         event.setDeleted(true);
         eventRepository.save(event);
+        locationDailyStatsService.applyEvent(before, locationDailyStatsService.capture(event));
         log.info("Successfully deleted event with ID: {}", eventId);
     }
 
@@ -191,25 +210,25 @@ public class EventService {
         Event event = eventRepository.findByIdAndNotDeleted(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
         
-        boolean isManager = managesRepository.findActiveManagement(
-                currentUser.getId(), event.getLocation().getId(), LocalDate.now()).stream()
-                .anyMatch(m -> m.isActive());
+        boolean isManager = managerAuthorizationIndex.isManager(currentUser.getId(), event.getLocation().getId());
         
         if (!isManager) {
             throw new IllegalArgumentException("User is not a manager of this event's location");
         }
         
         // Delete old image if exists
-        if (event.getImage() != null) {
-            String oldImagePath = event.getImage().getPath();
-            Image oldImage = event.getImage();
+        if (event.getImageUrl() != null) {
+            String oldImagePath = event.getImageUrl();
             
             // Break the relationship first
-            event.setImage(null);
-            oldImage.setEvent(null);
-            
-            // Delete from database
-            imageRepository.delete(oldImage);
+            for (Image oldImage : event.getImages()) {
+                oldImage.setEvent(null);
+                
+                // Delete from database
+                imageRepository.delete(oldImage);
+            }
+            event.getImages().clear();
+            event.setImageUrl(null);
             
             // Flush to ensure deletion is committed before inserting new image
             entityManager.flush();
@@ -226,7 +245,8 @@ public class EventService {
         Image savedImage = imageRepository.save(eventImage);
         
         // Update the event's image reference (bidirectional relationship)
-        event.setImage(savedImage);
+        event.getImages().add(savedImage);
+        event.setImageUrl(imageUrl);
         Event updatedEvent = eventRepository.save(event);
         
         log.info("Successfully updated image for event ID: {}", eventId);
@@ -264,9 +284,7 @@ public class EventService {
             dto.setLocationName(event.getLocation().getName());
         }
         
-        if (event.getImage() != null) {
-            dto.setImageUrl(event.getImage().getPath());
-        }
+        dto.setImageUrl(event.getImageUrl());
         
         return dto;
     }
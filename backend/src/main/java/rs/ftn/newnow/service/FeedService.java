@@ -1,58 +1,207 @@
 package rs.ftn.newnow.service;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import rs.ftn.newnow.dto.EventBasicDTO;
 import rs.ftn.newnow.dto.LocationDTO;
 import rs.ftn.newnow.dto.ReviewDetailsDTO;
+import rs.ftn.newnow.listener.EntityChangedEvent;
 import rs.ftn.newnow.model.Event;
 import rs.ftn.newnow.model.Location;
 import rs.ftn.newnow.repository.EventRepository;
 import rs.ftn.newnow.repository.LocationRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Serves the public feed from an in-memory snapshot of pre-serialized payloads.
+ * Every flushed write to feed entities bumps a generation counter; once the writing
+ * transaction commits the snapshot is rebuilt in the background, and a request that
+ * still finds it stale (by generation or by date) rebuilds it in place.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class FeedService {
 
+    static final int MAX_POPULAR_LOCATIONS = 50;
+    private static final int LATEST_REVIEWS = 3;
+
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
     private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile FeedSnapshot snapshot;
+
+    public FeedService(EventRepository eventRepository,
+                       LocationRepository locationRepository,
+                       ReviewService reviewService,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.locationRepository = locationRepository;
+        this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public FeedPayload getTodayEvents() {
+        return currentSnapshot().getTodayEvents();
+    }
+
+    public FeedPayload getPopularLocations(int limit) {
+        if (limit < 1 || limit > MAX_POPULAR_LOCATIONS) {
+            return readOnlyTransaction.execute(status -> serialize(loadPopularLocations(limit)));
+        }
+        return currentSnapshot().getPopularLocations(limit);
+    }
+
+    public FeedPayload getPopularLocationLatestReviews() {
+        FeedPayload latestReviews = currentSnapshot().getLatestReviews();
+        if (latestReviews == null) {
+            throw new RuntimeException("No popular locations found");
+        }
+        return latestReviews;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(FeedService.this);
+                generation.incrementAndGet();
+                if (status == STATUS_COMMITTED) {
+                    scheduleRefresh();
+                }
+            }
+        });
+    }
+
+    @Scheduled(cron = "${app.feed.refresh-cron:0 0 0 * * *}")
+    public void refreshAtMidnight() {
+        scheduleRefresh();
+    }
 
-    @Transactional(readOnly = true)
-    public List<EventBasicDTO> getTodayEvents() {
-        List<Event> events = eventRepository.findNonRecurrentByDate(LocalDate.now());
-        return events.stream()
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private FeedSnapshot currentSnapshot() {
+        // A transaction with its own pending feed writes must see them, so bypass the shared snapshot
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return readOnlyTransaction.execute(status -> buildSnapshot(generation.get()));
+        }
+        FeedSnapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            long buildGeneration = generation.get();
+            current = readOnlyTransaction.execute(status -> buildSnapshot(buildGeneration));
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private boolean isFresh(FeedSnapshot candidate) {
+        return candidate != null
+                && candidate.getGeneration() == generation.get()
+                && candidate.getDate().equals(LocalDate.now());
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                refreshPending.set(false);
+                try {
+                    currentSnapshot();
+                } catch (RuntimeException e) {
+                    log.warn("Feed snapshot refresh failed", e);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshPending.set(false);
+            log.debug("Feed snapshot refresh not scheduled", e);
+        }
+    }
+
+    private FeedSnapshot buildSnapshot(long buildGeneration) {
+        LocalDate today = LocalDate.now();
+        List<EventBasicDTO> todayEvents = eventRepository.findNonRecurrentByDate(today).stream()
                 .map(this::mapEventToBasicDTO)
                 .collect(Collectors.toList());
+        List<LocationDTO> popularLocations = loadPopularLocations(MAX_POPULAR_LOCATIONS);
+
+        FeedPayload latestReviews = null;
+        if (!popularLocations.isEmpty()) {
+            List<ReviewDetailsDTO> reviews = reviewService.getLatestReviewsForLocation(
+                    popularLocations.get(0).getId(), LATEST_REVIEWS);
+            latestReviews = serialize(reviews);
+        }
+        return new FeedSnapshot(buildGeneration, today, serialize(todayEvents), popularLocations, latestReviews);
     }
 
-    @Transactional(readOnly = true)
-    public List<LocationDTO> getPopularLocations(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Location> locations = locationRepository.findPopularLocations(pageable);
+    private List<LocationDTO> loadPopularLocations(int limit) {
+        List<Location> locations = locationRepository.findPopularLocations(PageRequest.of(0, limit));
         return locations.stream()
                 .map(this::mapLocationToDTO)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
-    public List<ReviewDetailsDTO> getPopularLocationLatestReviews() {
-        Pageable pageable = PageRequest.of(0, 1);
-        List<Location> popularLocations = locationRepository.findPopularLocations(pageable);
-        
-        if (popularLocations.isEmpty()) {
-            throw new RuntimeException("No popular locations found");
+    private FeedPayload serialize(Object value) {
+        try {
+            return new FeedPayload(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feed payload", e);
         }
-        
-        Location mostPopular = popularLocations.get(0);
-        return reviewService.getLatestReviewsForLocation(mostPopular.getId(), 3);
     }
 
     private EventBasicDTO mapEventToBasicDTO(Event event) {
@@ -76,4 +225,69 @@ public class FeedService {
         dto.setImageUrl(location.getImageUrl());
         return dto;
     }
+
+    public static final class FeedPayload {
+        private final byte[] body;
+        private final String etag;
+
+        FeedPayload(byte[] body) {
+            this.body = body;
+            this.etag = "\"" + sha256Hex(body) + "\"";
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        private static String sha256Hex(byte[] body) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    private final class FeedSnapshot {
+        private final long generation;
+        private final LocalDate date;
+        private final FeedPayload todayEvents;
+        private final List<LocationDTO> popularLocations;
+        private final FeedPayload latestReviews;
+        private final Map<Integer, FeedPayload> popularLocationsByLimit = new ConcurrentHashMap<>();
+
+        FeedSnapshot(long generation, LocalDate date, FeedPayload todayEvents,
+                     List<LocationDTO> popularLocations, FeedPayload latestReviews) {
+            this.generation = generation;
+            this.date = date;
+            this.todayEvents = todayEvents;
+            this.popularLocations = List.copyOf(popularLocations);
+            this.latestReviews = latestReviews;
+        }
+
+        long getGeneration() {
+            return generation;
+        }
+
+        LocalDate getDate() {
+            return date;
+        }
+
+        FeedPayload getTodayEvents() {
+            return todayEvents;
+        }
+
+        FeedPayload getLatestReviews() {
+            return latestReviews;
+        }
+
+        FeedPayload getPopularLocations(int limit) {
+            return popularLocationsByLimit.computeIfAbsent(limit, key ->
+                    serialize(popularLocations.subList(0, Math.min(key, popularLocations.size()))));
+        }
+    }
 }
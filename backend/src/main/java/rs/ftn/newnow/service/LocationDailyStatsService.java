@@ -0,0 +1,315 @@
+package rs.ftn.newnow.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.LocationDailyStats;
+import rs.ftn.newnow.model.Rate;
+import rs.ftn.newnow.model.Review;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.LocationDailyStatsRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.ReviewRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains {@code location_daily_stats}: one row per location and day with review counts,
+ * rating sums per dimension, a reviewer sketch and the number of events held. Review and event
+ * writes apply their before/after difference to the affected rows; a background backfill
+ * rebuilds every location from the raw tables.
+ */
+@Service
+@Slf4j
+public class LocationDailyStatsService {
+
+    private final LocationDailyStatsRepository statsRepository;
+    private final ReviewRepository reviewRepository;
+    private final EventRepository eventRepository;
+    private final LocationRepository locationRepository;
+    private final TransactionTemplate separateTransaction;
+
+    private final AtomicBoolean backfillPending = new AtomicBoolean();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "daily-stats-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LocationDailyStatsService(LocationDailyStatsRepository statsRepository,
+                                     ReviewRepository reviewRepository,
+                                     EventRepository eventRepository,
+                                     LocationRepository locationRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.reviewRepository = reviewRepository;
+        this.eventRepository = eventRepository;
+        this.locationRepository = locationRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns what the review contributes to the rollups, or {@code null} when it is deleted.
+     */
+    public ReviewContribution capture(Review review) {
+        if (review.getDeleted() || review.getDeletedByManager()) {
+            return null;
+        }
+        Rate rate = review.getRate();
+        return new ReviewContribution(review.getLocation().getId(), review.getEvent().getId(),
+                review.getCreatedAt().toLocalDate(), review.getUser().getId(),
+                rate != null ? rate.getPerformance() : null,
+                rate != null ? rate.getSoundAndLighting() : null,
+                rate != null ? rate.getVenue() : null,
+                rate != null ? rate.getOverallImpression() : null);
+    }
+
+    public EventContribution capture(Event event) {
+        if (event.getDeleted()) {
+            return null;
+        }
+        return new EventContribution(event.getLocation().getId(), event.getDate());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyReview(ReviewContribution before, ReviewContribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            LocationDailyStats stats = lockDay(before.locationId(), before.date());
+            addRatings(stats, before, -1);
+            boolean reviewerStays = after != null && after.locationId().equals(before.locationId())
+                    && after.date().equals(before.date()) && after.userId().equals(before.userId());
+            if (!reviewerStays) {
+                // Sketches cannot forget a member, so rebuild the day from its remaining reviewers
+                byte[] reviewers = HyperLogLog.newRegisters();
+                reviewRepository.findReviewerIdsByLocationBetween(before.locationId(),
+                                before.date().atStartOfDay(), before.date().plusDays(1).atStartOfDay())
+                        .forEach(userId -> HyperLogLog.add(reviewers, userId));
+                stats.setReviewers(reviewers);
+            }
+        }
+        if (after != null) {
+            LocationDailyStats stats = lockDay(after.locationId(), after.date());
+            addRatings(stats, after, 1);
+            HyperLogLog.add(stats.getReviewers(), after.userId());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyEvent(EventContribution before, EventContribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            LocationDailyStats stats = lockDay(before.locationId(), before.date());
+            stats.setEventsHeld(stats.getEventsHeld() - 1);
+        }
+        if (after != null) {
+            LocationDailyStats stats = lockDay(after.locationId(), after.date());
+            stats.setEventsHeld(stats.getEventsHeld() + 1);
+        }
+    }
+
+    public List<LocationDailyStats> findDays(Long locationId, LocalDate startDate, LocalDate endDate) {
+        return statsRepository.findByLocationAndDateRange(locationId, startDate, endDate);
+    }
+
+    /**
+     * Replaces the rollup rows of one location with ones computed from its reviews and events.
+     */
+    @Transactional
+    public int rebuildLocation(Long locationId) {
+        // Holds off incremental writers, which would otherwise insert days this rebuild is about to save
+        locationRepository.lockById(locationId);
+        Map<LocalDate, LocationDailyStats> days = new TreeMap<>();
+        for (Object[] row : reviewRepository.aggregateDailyByLocation(locationId)) {
+            LocationDailyStats stats = days.computeIfAbsent((LocalDate) row[0], date -> newDay(locationId, date));
+            stats.setReviewCount(toLong(row[1]));
+            stats.setPerformanceSum(toLong(row[2]));
+            stats.setPerformanceCount(toLong(row[3]));
+            stats.setSoundAndLightingSum(toLong(row[4]));
+            stats.setSoundAndLightingCount(toLong(row[5]));
+            stats.setVenueSum(toLong(row[6]));
+            stats.setVenueCount(toLong(row[7]));
+            stats.setOverallImpressionSum(toLong(row[8]));
+            stats.setOverallImpressionCount(toLong(row[9]));
+        }
+        for (Object[] row : reviewRepository.findDailyReviewersByLocation(locationId)) {
+            HyperLogLog.add(days.get((LocalDate) row[0]).getReviewers(), (Long) row[1]);
+        }
+        for (Object[] row : eventRepository.countDailyByLocation(locationId)) {
+            days.computeIfAbsent((LocalDate) row[0], date -> newDay(locationId, date)).setEventsHeld(toLong(row[1]));
+        }
+
+        int rebuilt = days.size();
+        // Update rows in place so readers never see a location without rollups
+        for (LocationDailyStats existing : statsRepository.findByLocation(locationId)) {
+            LocationDailyStats fresh = days.remove(existing.getDate());
+            if (fresh == null) {
+                statsRepository.delete(existing);
+            } else {
+                copy(fresh, existing);
+            }
+        }
+        statsRepository.saveAll(days.values());
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (statsRepository.count() == 0) {
+            scheduleBackfill();
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.daily-stats-backfill-cron:0 45 3 * * *}")
+    public void scheduleBackfill() {
+        if (!backfillPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            backfillExecutor.execute(() -> {
+                try {
+                    backfill();
+                } finally {
+                    backfillPending.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            backfillPending.set(false);
+            log.debug("Daily stats backfill not scheduled", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    void backfill() {
+        int locations = 0;
+        int days = 0;
+        // One transaction per location keeps row locks short while writes continue
+        for (Long locationId : locationRepository.findActiveIds()) {
+            try {
+                Integer rebuilt = separateTransaction.execute(status -> rebuildLocation(locationId));
+                days += rebuilt != null ? rebuilt : 0;
+                locations++;
+            } catch (RuntimeException e) {
+                log.warn("Daily stats backfill failed for location {}", locationId, e);
+            }
+        }
+        log.info("Rebuilt daily stats for {} locations ({} days)", locations, days);
+    }
+
+    // The row is created before it is locked: locking a missing row and then inserting it lets two
+    // first writes of a day collide on the unique key, or deadlock on their gap locks in InnoDB.
+    // Taking the location lock first keeps one lock order and covers H2, whose MERGE is not atomic.
+    private LocationDailyStats lockDay(Long locationId, LocalDate date) {
+        locationRepository.lockById(locationId);
+        statsRepository.insertIfAbsent(locationId, date, HyperLogLog.newRegisters());
+        return statsRepository.findForUpdate(locationId, date)
+                .orElseThrow(() -> new IllegalStateException("Daily stats row missing for location " + locationId));
+    }
+
+    private static LocationDailyStats newDay(Long locationId, LocalDate date) {
+        LocationDailyStats stats = new LocationDailyStats();
+        stats.setLocationId(locationId);
+        stats.setDate(date);
+        stats.setReviewers(HyperLogLog.newRegisters());
+        return stats;
+    }
+
+    private static void copy(LocationDailyStats from, LocationDailyStats into) {
+        into.setReviewCount(from.getReviewCount());
+        into.setPerformanceSum(from.getPerformanceSum());
+        into.setPerformanceCount(from.getPerformanceCount());
+        into.setSoundAndLightingSum(from.getSoundAndLightingSum());
+        into.setSoundAndLightingCount(from.getSoundAndLightingCount());
+        into.setVenueSum(from.getVenueSum());
+        into.setVenueCount(from.getVenueCount());
+        into.setOverallImpressionSum(from.getOverallImpressionSum());
+        into.setOverallImpressionCount(from.getOverallImpressionCount());
+        into.setEventsHeld(from.getEventsHeld());
+        into.setReviewers(from.getReviewers());
+    }
+
+    private static void addRatings(LocationDailyStats stats, ReviewContribution review, int sign) {
+        stats.setReviewCount(stats.getReviewCount() + sign);
+        if (review.performance() != null) {
+            stats.setPerformanceSum(stats.getPerformanceSum() + sign * review.performance());
+            stats.setPerformanceCount(stats.getPerformanceCount() + sign);
+        }
+        if (review.soundAndLighting() != null) {
+            stats.setSoundAndLightingSum(stats.getSoundAndLightingSum() + sign * review.soundAndLighting());
+            stats.setSoundAndLightingCount(stats.getSoundAndLightingCount() + sign);
+        }
+        if (review.venue() != null) {
+            stats.setVenueSum(stats.getVenueSum() + sign * review.venue());
+            stats.setVenueCount(stats.getVenueCount() + sign);
+        }
+        if (review.overallImpression() != null) {
+            stats.setOverallImpressionSum(stats.getOverallImpressionSum() + sign * review.overallImpression());
+            stats.setOverallImpressionCount(stats.getOverallImpressionCount() + sign);
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    public record ReviewContribution(Long locationId, Long eventId, LocalDate date, Long userId, Integer performance,
+                                     Integer soundAndLighting, Integer venue, Integer overallImpression) {
+    }
+
+    public record EventContribution(Long locationId, LocalDate date) {
+    }
+
+    /**
+     * Sum of a run of daily rows; distinct reviewers come from the merged sketches.
+     */
+    public record Totals(long reviewCount, long overallImpressionSum, long overallImpressionCount,
+                         long eventsHeld, long distinctReviewers) {
+
+        public static Totals of(Collection<LocationDailyStats> days) {
+            long reviewCount = 0;
+            long overallImpressionSum = 0;
+            long overallImpressionCount = 0;
+            long eventsHeld = 0;
+            byte[] reviewers = HyperLogLog.newRegisters();
+            for (LocationDailyStats day : days) {
+                reviewCount += day.getReviewCount();
+                overallImpressionSum += day.getOverallImpressionSum();
+                overallImpressionCount += day.getOverallImpressionCount();
+                eventsHeld += day.getEventsHeld();
+                HyperLogLog.merge(reviewers, day.getReviewers());
+            }
+            return new Totals(reviewCount, overallImpressionSum, overallImpressionCount, eventsHeld,
+                    HyperLogLog.estimate(reviewers));
+        }
+
+        public Double averageOverallImpression() {
+            return overallImpressionCount > 0 ? (double) overallImpressionSum / overallImpressionCount : null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package rs.ftn.newnow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.dto.ReviewDetailsDTO;
+import rs.ftn.newnow.repository.LocationDailyStatsRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.ReviewRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes a location's reviews or daily rollups as CSV or NDJSON straight from a database cursor.
+ * Rows are projections rather than entities, so nothing accumulates in the persistence context
+ * and memory stays flat however many rows the location has.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocationExportService {
+
+    // Pushes rows to the client in chunks instead of buffering the whole export
+    static final int FLUSH_EVERY = 500;
+
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final String[] REVIEW_COLUMNS = {"id", "createdAt", "eventId", "eventName", "eventDate",
+            "authorId", "authorName", "authorEmail", "hidden", "eventCount", "performance", "soundAndLighting",
+            "venue", "overallImpression", "comment"};
+    private static final String[] DAILY_COLUMNS = {"date", "reviewCount", "averagePerformance",
+            "averageSoundAndLighting", "averageVenue", "averageOverallImpression", "eventsHeld"};
+
+    private final ReviewRepository reviewRepository;
+    private final LocationDailyStatsRepository statsRepository;
+    private final LocationRepository locationRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static ExportFormat parse(String value) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Format must be one of: csv, ndjson");
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void requireLocation(Long locationId) {
+        locationRepository.findByIdAndDeletedFalse(locationId)
+                .orElseThrow(() -> new IllegalArgumentException("Location not found"));
+    }
+
+    /**
+     * Writes every review of the location that is not deleted, hidden ones included, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public long writeReviews(Long locationId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ReviewDetailsDTO> reviews = reviewRepository.streamDetailsByLocationId(locationId)) {
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, (Object[]) REVIEW_COLUMNS);
+            }
+            return writeRows(writer, reviews.iterator(), review -> {
+                if (format == ExportFormat.NDJSON) {
+                    writer.write(objectMapper.writeValueAsString(review));
+                    writer.write('\n');
+                    return;
+                }
+                writeCsvRow(writer, review.getId(), review.getCreatedAt(),
+                        review.getEvent().getId(), review.getEvent().getName(), review.getEvent().getDate(),
+                        review.getAuthor().getId(), review.getAuthor().getName(), review.getAuthor().getEmail(),
+                        review.getHidden(), review.getEventCount(),
+                        review.getRatings().getPerformance(), review.getRatings().getSoundAndLighting(),
+                        review.getRatings().getVenue(), review.getRatings().getOverallImpression(),
+                        review.getComment());
+            });
+        }
+    }
+
+    /**
+     * Writes one line per day with activity between the two dates, with per-dimension averages.
+     */
+    @Transactional(readOnly = true)
+    public long writeDailyStats(Long locationId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+                                OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Object[]> days = statsRepository.streamByLocationAndDateRange(locationId, startDate, endDate)) {
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, (Object[]) DAILY_COLUMNS);
+            }
+            return writeRows(writer, days.iterator(), row -> {
+                Object[] values = {row[0], row[1], average(row[2], row[3]), average(row[4], row[5]),
+                        average(row[6], row[7]), average(row[8], row[9]), row[10]};
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, values);
+                    return;
+                }
+                Map<String, Object> line = new LinkedHashMap<>();
+                for (int i = 0; i < DAILY_COLUMNS.length; i++) {
+                    line.put(DAILY_COLUMNS[i], values[i]);
+                }
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.write('\n');
+            });
+        }
+    }
+
+    private static <T> long writeRows(Writer writer, Iterator<T> rows, RowWriter<T> rowWriter) throws IOException {
+        long written = 0;
+        while (rows.hasNext()) {
+            rowWriter.write(rows.next());
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes.
+    // User-written text that a spreadsheet would read as a formula is prefixed with a single quote first.
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static Double average(Object sum, Object count) {
+        long total = ((Number) count).longValue();
+        return total > 0 ? ((Number) sum).doubleValue() / total : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+}
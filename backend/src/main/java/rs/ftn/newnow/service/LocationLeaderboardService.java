@@ -0,0 +1,115 @@
+package rs.ftn.newnow.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.dto.LeaderboardEntryDTO;
+import rs.ftn.newnow.repository.LocationDailyStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Ranks every active location for a date range from the daily rollups with one grouped query.
+ * Results are cached per range for a short TTL, so repeated admin views of the same period
+ * do not rescan the rollups; sorting and truncation are applied to the cached rows per request.
+ */
+@Service
+public class LocationLeaderboardService {
+
+    static final int MAX_CACHED_RANGES = 32;
+
+    private final LocationDailyStatsRepository statsRepository;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Range, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Range, Entry> eldest) {
+            return size() > MAX_CACHED_RANGES;
+        }
+    };
+
+    @Autowired
+    public LocationLeaderboardService(LocationDailyStatsRepository statsRepository,
+                                      @Value("${app.analytics.leaderboard-ttl:PT1M}") Duration ttl) {
+        this(statsRepository, ttl, System::nanoTime);
+    }
+
+    LocationLeaderboardService(LocationDailyStatsRepository statsRepository, Duration ttl, LongSupplier clock) {
+        this.statsRepository = statsRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the top {@code limit} locations ordered by {@code sortBy}: {@code reviews},
+     * {@code rating} or {@code events}. Ranks are 1-based; ties fall back to review count,
+     * then location id.
+     */
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntryDTO> getLeaderboard(LocalDate startDate, LocalDate endDate, String sortBy, int limit) {
+        Comparator<Row> order = comparator(sortBy);
+        List<Row> rows = new ArrayList<>(rows(new Range(startDate, endDate)));
+        rows.sort(order);
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(Math.min(limit, rows.size()));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            Row row = rows.get(i);
+            entries.add(new LeaderboardEntryDTO(i + 1, row.locationId(), row.name(), row.type(),
+                    row.reviewCount(), row.averageRating(), row.eventCount()));
+        }
+        return entries;
+    }
+
+    private List<Row> rows(Range range) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(range);
+            if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                return entry.rows();
+            }
+            entries.remove(range);
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Object[] result : statsRepository.sumByLocationBetween(range.startDate(), range.endDate())) {
+            long ratingCount = ((Number) result[5]).longValue();
+            Double averageRating = ratingCount > 0 ? ((Number) result[4]).doubleValue() / ratingCount : null;
+            rows.add(new Row((Long) result[0], (String) result[1], (String) result[2],
+                    ((Number) result[3]).longValue(), averageRating, ((Number) result[6]).longValue()));
+        }
+        List<Row> loaded = List.copyOf(rows);
+        synchronized (entries) {
+            entries.put(range, new Entry(loaded, now));
+        }
+        return loaded;
+    }
+
+    private static Comparator<Row> comparator(String sortBy) {
+        Comparator<Row> primary = switch (sortBy == null ? "reviews" : sortBy.toLowerCase()) {
+            case "reviews" -> Comparator.comparingLong(Row::reviewCount).reversed();
+            case "rating" -> Comparator.comparing(Row::averageRating,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+            case "events" -> Comparator.comparingLong(Row::eventCount).reversed();
+            default -> throw new IllegalArgumentException("Sort must be one of: reviews, rating, events");
+        };
+        return primary.thenComparing(Comparator.comparingLong(Row::reviewCount).reversed())
+                .thenComparingLong(Row::locationId);
+    }
+
+    private record Range(LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record Row(Long locationId, String name, String type, long reviewCount, Double averageRating,
+                       long eventCount) {
+    }
+
+    private record Entry(List<Row> rows, long loadedAt) {
+    }
+}
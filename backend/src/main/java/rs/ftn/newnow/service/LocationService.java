@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,12 +15,14 @@ import rs.ftn.newnow.model.Location;
 import rs.ftn.newnow.model.Review;
 import rs.ftn.newnow.repository.EventRepository;
 import rs.ftn.newnow.repository.LocationRepository;
-import rs.ftn.newnow.repository.ManagesRepository;
 import rs.ftn.newnow.repository.ReviewRepository;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,8 +33,9 @@ public class LocationService {
     private final LocationRepository locationRepository;
     private final ReviewRepository reviewRepository;
     private final EventRepository eventRepository;
-    private final ManagesRepository managesRepository;
+    private final ManagerAuthorizationIndex managerAuthorizationIndex;
     private final FileStorageService fileStorageService;
+    private final SearchIndexService searchIndexService;
 
     @Transactional(readOnly = true)
     public LocationPageResponse getLocations(String search, int page, int size) {
@@ -40,7 +44,14 @@ public class LocationService {
         
         Page<Location> locationPage;
         if (search != null && !search.trim().isEmpty()) {
-            locationPage = locationRepository.searchLocations(search.trim(), pageable);
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(search.trim());
+            if (candidates.isEmpty()) {
+                locationPage = locationRepository.searchLocations(search.trim(), pageable);
+            } else if (candidates.get().isEmpty()) {
+                locationPage = Page.empty(pageable);
+            } else {
+                locationPage = locationRepository.searchLocationsAmong(search.trim(), candidates.get(), pageable);
+            }
         } else {
             locationPage = locationRepository.findByDeletedFalse(pageable);
         }
@@ -57,6 +68,36 @@ public class LocationService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LocationDTO> getLocationsByCursor(String search, String cursor, int size) {
+        log.info("Fetching locations by cursor - size: {}, search: {}", size, search);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Long afterId = after != null ? after.getId() : null;
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<Location> locations;
+        if (search != null && !search.trim().isEmpty()) {
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(search.trim());
+            if (candidates.isEmpty()) {
+                locations = locationRepository.searchLocationsAfter(search.trim(), afterId, pageable);
+            } else if (candidates.get().isEmpty()) {
+                return new CursorPageResponse<>(List.of(), null, false);
+            } else {
+                locations = locationRepository.searchLocationsAfterAmong(search.trim(), candidates.get(),
+                        afterId, pageable);
+            }
+        } else {
+            locations = locationRepository.findByDeletedFalseAfter(afterId, pageable);
+        }
+
+        String nextCursor = null;
+        if (locations.hasNext()) {
+            Location last = locations.getContent().get(locations.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getId());
+        }
+        return new CursorPageResponse<>(locations.map(this::convertToDTO).getContent(), nextCursor, locations.hasNext());
+    }
+
     @Transactional(readOnly = true)
     public LocationDetailsDTO getLocationDetails(Long id) {
         log.info("Fetching location details for id: {}", id);
@@ -141,8 +182,8 @@ public class LocationService {
         }
         
         location.getEvents().forEach(event -> {
-            if (event.getImage() != null && event.getImage().getPath() != null) {
-                fileStorageService.deleteImage(event.getImage().getPath());
+            if (event.getImageUrl() != null) {
+                fileStorageService.deleteImage(event.getImageUrl());
             }
         });
         
@@ -200,6 +241,34 @@ public class LocationService {
         return reviews.map(this::convertReviewToDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReviewDTO> getLocationReviewsByCursor(Long locationId, String sort, String order,
+                                                                    String cursor, int size) {
+        log.info("Fetching reviews by cursor for location: {} with sort: {}, order: {}", locationId, sort, order);
+        if ("rating".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Cursor pagination is only supported when sorting by date");
+        }
+        if (!locationRepository.existsById(locationId)) {
+            throw new RuntimeException("Location not found");
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterCreatedAt = after != null ? after.getSortKey(LocalDateTime::parse) : null;
+        Long afterId = after != null ? after.getId() : null;
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<Review> reviews = "asc".equalsIgnoreCase(order)
+                ? reviewRepository.findByLocationIdOrderByDateAfter(locationId, afterCreatedAt, afterId, pageable)
+                : reviewRepository.findByLocationIdOrderByDateBefore(locationId, afterCreatedAt, afterId, pageable);
+
+        String nextCursor = null;
+        if (reviews.hasNext()) {
+            Review last = reviews.getContent().get(reviews.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageResponse<>(reviews.map(this::convertReviewToDTO).getContent(), nextCursor, reviews.hasNext());
+    }
+
     @Transactional(readOnly = true)
     public List<LocationDTO> getPopularLocations(Integer limit) {
         log.info("Fetching popular locations with limit: {}", limit);
@@ -214,16 +283,16 @@ public class LocationService {
     }
 
     public boolean isUserManagerOfLocation(Long userId, Long locationId) {
-        return !managesRepository.findActiveManagement(userId, locationId, LocalDate.now()).isEmpty();
+        return managerAuthorizationIndex.isManager(userId, locationId);
     }
 
     public boolean isManagerOfLocation(Long locationId, String email) {
+        if (managerAuthorizationIndex.isManager(email, locationId)) {
+            return true;
+        }
         locationRepository.findByIdAndDeletedFalse(locationId)
                 .orElseThrow(() -> new RuntimeException("Location not found"));
-
-        return managesRepository.findActiveManagersByLocation(locationId, LocalDate.now())
-                .stream()
-                .anyMatch(manages -> manages.getUser().getEmail().equals(email));
+        return false;
     }
 
     private Pageable createPageableForReviews(String sort, String order, int page, int size) {
@@ -262,15 +331,8 @@ public class LocationService {
         dto.setCreatedAt(location.getCreatedAt());
         dto.setImageUrl(location.getImageUrl());
         
-        List<Review> reviews = reviewRepository.findByLocationIdAndNotDeleted(location.getId(), Pageable.unpaged()).getContent();
-        dto.setTotalReviews(reviews.size());
-        
-        Double avgRating = reviews.stream()
-                .filter(r -> r.getRate() != null)
-                .mapToDouble(r -> r.getRate().getAverageRating())
-                .average()
-                .orElse(0.0);
-        dto.setAverageRating(avgRating);
+        dto.setTotalReviews(location.getRatingCount().intValue());
+        dto.setAverageRating(location.getTotalRating());
         
         List<Event> upcomingEvents = eventRepository.findUpcomingByLocation(
                 location.getId(), 
@@ -297,9 +359,7 @@ public class LocationService {
         dto.setLocationId(event.getLocation().getId());
         dto.setLocationName(event.getLocation().getName());
         
-        if (event.getImage() != null) {
-            dto.setImageUrl(event.getImage().getPath());
-        }
+        dto.setImageUrl(event.getImageUrl());
         
         return dto;
     }
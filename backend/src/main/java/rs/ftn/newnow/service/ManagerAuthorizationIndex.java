@@ -0,0 +1,255 @@
+package rs.ftn.newnow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.listener.EntityChangedEvent;
+import rs.ftn.newnow.model.Manages;
+import rs.ftn.newnow.repository.ManagesRepository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Active manager assignments held in memory, by user and by location, so permission checks
+ * on manager actions are map lookups instead of queries. New assignments reach the shared maps
+ * only once their transaction commits; until then the writing transaction sees them through an
+ * overlay bound to it. Revocations apply as soon as they are flushed, and a rollback reloads the
+ * affected users from the database. Assignments past their end date never grant access.
+ */
+@Component
+@Slf4j
+public class ManagerAuthorizationIndex {
+
+    private final ManagesRepository managesRepository;
+    private final TransactionTemplate separateReadOnlyTransaction;
+
+    private final Map<Long, Map<Long, Assignment>> assignmentsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Assignment>> assignmentsByLocation = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+
+    public ManagerAuthorizationIndex(ManagesRepository managesRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.managesRepository = managesRepository;
+        this.separateReadOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.separateReadOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.separateReadOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        assignmentsByUser.clear();
+        assignmentsByLocation.clear();
+        List<Object[]> rows = managesRepository.findActiveAssignments(LocalDate.now());
+        rows.forEach(this::add);
+        log.info("Loaded {} active manager assignments", rows.size());
+    }
+
+    public boolean isManager(Long userId, Long locationId) {
+        if (userId == null || locationId == null) {
+            return false;
+        }
+        Overlay overlay = currentOverlay();
+        if (overlay != null) {
+            Assignment pending = overlay.byUser.getOrDefault(userId, Map.of()).get(locationId);
+            if (pending != null && pending.activeOn(LocalDate.now())) {
+                return true;
+            }
+        }
+        Map<Long, Assignment> byLocation = assignmentsByUser.get(userId);
+        Assignment assignment = byLocation == null ? null : byLocation.get(locationId);
+        if (assignment == null) {
+            return false;
+        }
+        if (!assignment.activeOn(LocalDate.now())) {
+            remove(assignment);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isManager(String email, Long locationId) {
+        if (email == null) {
+            return false;
+        }
+        Overlay overlay = currentOverlay();
+        Long userId = overlay != null ? overlay.userIdsByEmail.get(email) : null;
+        return isManager(userId != null ? userId : userIdsByEmail.get(email), locationId);
+    }
+
+    public Set<Long> managedLocationIds(Long userId) {
+        Overlay overlay = currentOverlay();
+        return activeKeys(assignmentsByUser.get(userId), overlay != null ? overlay.byUser.get(userId) : null);
+    }
+
+    public Set<Long> managerIds(Long locationId) {
+        Overlay overlay = currentOverlay();
+        return activeKeys(assignmentsByLocation.get(locationId),
+                overlay != null ? overlay.byLocation.get(locationId) : null);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.getEntity() instanceof Manages manages)) {
+            return;
+        }
+        Assignment assignment = new Assignment(manages.getId(), manages.getUser().getId(),
+                manages.getLocation().getId(), manages.getEndDate());
+        boolean grants = event.getChangeType() != EntityChangedEvent.ChangeType.REMOVED
+                && assignment.activeOn(LocalDate.now());
+        // Reading the email of an uninitialized proxy mid-flush would load it; users come
+        // initialized from assignManager, and the startup load already knows everyone else
+        String email = grants && Hibernate.isInitialized(manages.getUser()) ? manages.getUser().getEmail() : null;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (grants) {
+                if (email != null) {
+                    userIdsByEmail.put(email, assignment.userId());
+                }
+                put(assignment);
+            } else {
+                remove(assignment);
+            }
+            return;
+        }
+        Overlay overlay = bindOverlay();
+        overlay.touchedUserIds.add(assignment.userId());
+        if (grants) {
+            // Other requests must not act on a grant that may still roll back
+            overlay.put(assignment, email);
+        } else {
+            overlay.remove(assignment);
+            remove(assignment);
+        }
+    }
+
+    private Overlay currentOverlay() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Overlay) TransactionSynchronizationManager.getResource(this)
+                : null;
+    }
+
+    private Overlay bindOverlay() {
+        Overlay overlay = currentOverlay();
+        if (overlay != null) {
+            return overlay;
+        }
+        Overlay created = new Overlay();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.userIdsByEmail.forEach(userIdsByEmail::put);
+                created.byUser.values().forEach(pending -> pending.values().forEach(assignment -> put(assignment)));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ManagerAuthorizationIndex.this);
+                if (status != STATUS_COMMITTED) {
+                    // Revocations were applied eagerly, so restore what the database still holds
+                    created.touchedUserIds.forEach(userId -> reloadUser(userId));
+                }
+            }
+        });
+        return created;
+    }
+
+    private synchronized void reloadUser(Long userId) {
+        List<Object[]> rows = separateReadOnlyTransaction.execute(status ->
+                managesRepository.findActiveAssignmentsByUserId(userId, LocalDate.now()));
+        Map<Long, Assignment> previous = assignmentsByUser.get(userId);
+        if (previous != null) {
+            List.copyOf(previous.values()).forEach(this::remove);
+        }
+        rows.forEach(this::add);
+    }
+
+    private void add(Object[] row) {
+        Assignment assignment = new Assignment((Long) row[0], (Long) row[1], (Long) row[3], (LocalDate) row[4]);
+        userIdsByEmail.put((String) row[2], assignment.userId());
+        put(assignment);
+    }
+
+    private synchronized void put(Assignment assignment) {
+        assignmentsByUser.computeIfAbsent(assignment.userId(), id -> new ConcurrentHashMap<>())
+                .put(assignment.locationId(), assignment);
+        assignmentsByLocation.computeIfAbsent(assignment.locationId(), id -> new ConcurrentHashMap<>())
+                .put(assignment.userId(), assignment);
+    }
+
+    private synchronized void remove(Assignment assignment) {
+        // Only drop the entry this row put there; an older ended row must not revoke a newer one
+        assignmentsByUser.computeIfPresent(assignment.userId(), (id, byLocation) -> {
+            byLocation.computeIfPresent(assignment.locationId(),
+                    (locationId, current) -> current.id().equals(assignment.id()) ? null : current);
+            return byLocation.isEmpty() ? null : byLocation;
+        });
+        assignmentsByLocation.computeIfPresent(assignment.locationId(), (id, byUser) -> {
+            byUser.computeIfPresent(assignment.userId(),
+                    (userId, current) -> current.id().equals(assignment.id()) ? null : current);
+            return byUser.isEmpty() ? null : byUser;
+        });
+    }
+
+    private static Set<Long> activeKeys(Map<Long, Assignment> committed, Map<Long, Assignment> pending) {
+        if (committed == null && pending == null) {
+            return Set.of();
+        }
+        LocalDate today = LocalDate.now();
+        return Stream.of(committed, pending)
+                .filter(assignments -> assignments != null)
+                .flatMap(assignments -> assignments.entrySet().stream())
+                .filter(entry -> entry.getValue().activeOn(today))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record Assignment(Long id, Long userId, Long locationId, LocalDate endDate) {
+        boolean activeOn(LocalDate day) {
+            return endDate == null || endDate.isAfter(day);
+        }
+    }
+
+    /**
+     * Grants written by the current transaction, visible only to it until it commits.
+     */
+    private static final class Overlay {
+        private final Map<Long, Map<Long, Assignment>> byUser = new HashMap<>();
+        private final Map<Long, Map<Long, Assignment>> byLocation = new HashMap<>();
+        private final Map<String, Long> userIdsByEmail = new HashMap<>();
+        private final Set<Long> touchedUserIds = new HashSet<>();
+
+        void put(Assignment assignment, String email) {
+            byUser.computeIfAbsent(assignment.userId(), id -> new HashMap<>()).put(assignment.locationId(), assignment);
+            byLocation.computeIfAbsent(assignment.locationId(), id -> new HashMap<>()).put(assignment.userId(), assignment);
+            if (email != null) {
+                userIdsByEmail.put(email, assignment.userId());
+            }
+        }
+
+        void remove(Assignment assignment) {
+            Assignment pending = byUser.getOrDefault(assignment.userId(), Map.of()).get(assignment.locationId());
+            if (pending != null && pending.id().equals(assignment.id())) {
+                byUser.get(assignment.userId()).remove(assignment.locationId());
+                byLocation.get(assignment.locationId()).remove(assignment.userId());
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package rs.ftn.newnow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.dto.DimensionDistributionDTO;
+import rs.ftn.newnow.dto.RatingDistributionDTO;
+import rs.ftn.newnow.model.RatingHistogram;
+import rs.ftn.newnow.model.enums.HistogramScope;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.RatingHistogramRepository;
+import rs.ftn.newnow.repository.ReviewRepository;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps one fixed-size histogram per location and per event, holding a counter for every score of
+ * every rate dimension. Review writes adjust the counters in place, so a distribution and its
+ * percentiles are read from a single row. A nightly job rebuilds them location by location.
+ */
+@Service
+@Slf4j
+public class RatingHistogramService {
+
+    static final int MAX_SCORE = 10;
+    static final List<String> DIMENSIONS = List.of("performance", "soundAndLighting", "venue", "overallImpression");
+    private static final int COUNTERS = DIMENSIONS.size() * MAX_SCORE;
+
+    private final RatingHistogramRepository ratingHistogramRepository;
+    private final ReviewRepository reviewRepository;
+    private final EventRepository eventRepository;
+    private final LocationRepository locationRepository;
+    private final TransactionTemplate separateTransaction;
+
+    public RatingHistogramService(RatingHistogramRepository ratingHistogramRepository,
+                                  ReviewRepository reviewRepository,
+                                  EventRepository eventRepository,
+                                  LocationRepository locationRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.ratingHistogramRepository = ratingHistogramRepository;
+        this.reviewRepository = reviewRepository;
+        this.eventRepository = eventRepository;
+        this.locationRepository = locationRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(LocationDailyStatsService.ReviewContribution before,
+                      LocationDailyStatsService.ReviewContribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        // Same lock order as the daily rollups: location row first, then the histogram rows
+        if (before != null) {
+            locationRepository.lockById(before.locationId());
+        }
+        if (after != null) {
+            locationRepository.lockById(after.locationId());
+        }
+        if (before != null) {
+            adjust(HistogramScope.LOCATION, before.locationId(), scoresOf(before), -1);
+            adjust(HistogramScope.EVENT, before.eventId(), scoresOf(before), -1);
+        }
+        if (after != null) {
+            adjust(HistogramScope.LOCATION, after.locationId(), scoresOf(after), 1);
+            adjust(HistogramScope.EVENT, after.eventId(), scoresOf(after), 1);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RatingDistributionDTO getDistribution(HistogramScope scope, Long scopeId) {
+        int[] counters = ratingHistogramRepository.findByScope(scope, scopeId)
+                .map(histogram -> decode(histogram.getCounts()))
+                .orElseGet(() -> new int[COUNTERS]);
+
+        Map<String, DimensionDistributionDTO> dimensions = new LinkedHashMap<>();
+        for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+            dimensions.put(DIMENSIONS.get(dimension), toDistribution(counters, dimension * MAX_SCORE));
+        }
+        return new RatingDistributionDTO(scope.name().toLowerCase(), scopeId, dimensions);
+    }
+
+    /**
+     * Recomputes the histograms of one location and of its events from their reviews.
+     */
+    @Transactional
+    public int rebuildLocation(Long locationId) {
+        // Holds off review writes to this location, whose increments the overwrite below would lose
+        locationRepository.lockById(locationId);
+        int[] location = new int[COUNTERS];
+        Map<Long, int[]> events = new HashMap<>();
+        for (Object[] row : reviewRepository.countRatingCombinationsByLocation(locationId)) {
+            int count = ((Number) row[5]).intValue();
+            int[] event = events.computeIfAbsent((Long) row[0], id -> new int[COUNTERS]);
+            for (int dimension = 0; dimension < DIMENSIONS.size(); dimension++) {
+                int counter = counterIndex(dimension, (Integer) row[1 + dimension]);
+                if (counter >= 0) {
+                    location[counter] += count;
+                    event[counter] += count;
+                }
+            }
+        }
+
+        int rebuilt = events.size() + (events.isEmpty() ? 0 : 1);
+        // Counters are overwritten in place; deleting and re-inserting would collide with writers
+        // creating the same rows
+        ratingHistogramRepository.findForUpdate(HistogramScope.LOCATION, locationId).ifPresentOrElse(
+                histogram -> histogram.setCounts(encode(location)),
+                () -> {
+                    if (!events.isEmpty()) {
+                        ratingHistogramRepository.upsertCounts(HistogramScope.LOCATION, locationId, encode(location));
+                    }
+                });
+        Set<Long> eventIds = new HashSet<>(eventRepository.findAllIdsByLocationId(locationId));
+        eventIds.addAll(events.keySet());
+        if (!eventIds.isEmpty()) {
+            for (RatingHistogram histogram : ratingHistogramRepository.findAllForUpdate(HistogramScope.EVENT, eventIds)) {
+                int[] counters = events.remove(histogram.getScopeId());
+                histogram.setCounts(encode(counters != null ? counters : new int[COUNTERS]));
+            }
+        }
+        events.forEach((id, counters) ->
+                ratingHistogramRepository.upsertCounts(HistogramScope.EVENT, id, encode(counters)));
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (ratingHistogramRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.rating-histogram-rebuild-cron:0 50 3 * * *}")
+    public void rebuild() {
+        int locations = 0;
+        int histograms = 0;
+        // One transaction per location keeps row locks short while reviews keep arriving
+        for (Long locationId : locationRepository.findActiveIds()) {
+            try {
+                Integer rebuilt = separateTransaction.execute(status -> rebuildLocation(locationId));
+                histograms += rebuilt != null ? rebuilt : 0;
+                locations++;
+            } catch (RuntimeException e) {
+                log.warn("Rating histogram rebuild failed for location {}", locationId, e);
+            }
+        }
+        log.info("Rebuilt {} rating histograms for {} locations", histograms, locations);
+    }
+
+    private void adjust(HistogramScope scope, Long scopeId, Integer[] scores, int delta) {
+        boolean rated = false;
+        for (Integer score : scores) {
+            rated |= score != null;
+        }
+        if (!rated) {
+            return;
+        }
+        // Created before it is locked, so concurrent first reviews of a scope cannot both insert it
+        ratingHistogramRepository.insertIfAbsent(scope, scopeId, encode(new int[COUNTERS]));
+        RatingHistogram histogram = ratingHistogramRepository.findForUpdate(scope, scopeId)
+                .orElseThrow(() -> new IllegalStateException("Rating histogram missing for " + scope + " " + scopeId));
+        int[] counters = decode(histogram.getCounts());
+        for (int dimension = 0; dimension < scores.length; dimension++) {
+            int counter = counterIndex(dimension, scores[dimension]);
+            if (counter >= 0) {
+                counters[counter] = Math.max(0, counters[counter] + delta);
+            }
+        }
+        histogram.setCounts(encode(counters));
+    }
+
+    private static DimensionDistributionDTO toDistribution(int[] counters, int offset) {
+        List<Long> counts = new ArrayList<>(MAX_SCORE);
+        long total = 0;
+        long sum = 0;
+        for (int score = 1; score <= MAX_SCORE; score++) {
+            int count = counters[offset + score - 1];
+            counts.add((long) count);
+            total += count;
+            sum += (long) score * count;
+        }
+        Double average = total > 0 ? (double) sum / total : null;
+        return new DimensionDistributionDTO(counts, total, average,
+                percentile(counters, offset, total, 25), percentile(counters, offset, total, 50),
+                percentile(counters, offset, total, 75), percentile(counters, offset, total, 90));
+    }
+
+    // Nearest-rank percentile: the lowest score whose cumulative count reaches the rank
+    private static Integer percentile(int[] counters, int offset, long total, int percent) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (total * percent + 99) / 100;
+        long cumulative = 0;
+        for (int score = 1; score <= MAX_SCORE; score++) {
+            cumulative += counters[offset + score - 1];
+            if (cumulative >= rank) {
+                return score;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    private static Integer[] scoresOf(LocationDailyStatsService.ReviewContribution review) {
+        return new Integer[]{review.performance(), review.soundAndLighting(), review.venue(), review.overallImpression()};
+    }
+
+    private static int counterIndex(int dimension, Integer score) {
+        if (score == null || score < 1 || score > MAX_SCORE) {
+            return -1;
+        }
+        return dimension * MAX_SCORE + score - 1;
+    }
+
+    private static int[] decode(byte[] counts) {
+        int[] counters = new int[COUNTERS];
+        ByteBuffer.wrap(counts).asIntBuffer().get(counters);
+        return counters;
+    }
+
+    private static byte[] encode(int[] counters) {
+        ByteBuffer buffer = ByteBuffer.allocate(COUNTERS * Integer.BYTES);
+        buffer.asIntBuffer().put(counters);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,130 @@
+package rs.ftn.newnow.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.model.Review;
+import rs.ftn.newnow.repository.LocationPopularityRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps per-location review aggregates, daily rollups and rating histograms in step with review
+ * writes by applying the difference between two captured states; a nightly job rebuilds them from scratch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewAggregateService {
+
+    private final LocationRepository locationRepository;
+    private final LocationPopularityRepository locationPopularityRepository;
+    private final LocationDailyStatsService locationDailyStatsService;
+    private final RatingHistogramService ratingHistogramService;
+
+    public ReviewState capture(Review review) {
+        boolean counted = !review.getDeleted() && !review.getDeletedByManager() && !review.getHidden();
+        double averageRating = review.getRate() != null ? review.getRate().getAverageRating() : 0.0;
+        int overallImpression = review.getRate() != null && review.getRate().getOverallImpression() != null
+                ? review.getRate().getOverallImpression() : 0;
+        return new ReviewState(review.getLocation().getId(), counted, averageRating, overallImpression,
+                review.getCreatedAt(), locationDailyStatsService.capture(review));
+    }
+
+    /**
+     * Applies the change from {@code before} to {@code after}. Either side may be
+     * {@code null} for a review that is being created or physically removed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(ReviewState before, ReviewState after) {
+        Long locationId = after != null ? after.getLocationId() : before.getLocationId();
+        double sumDelta = 0.0;
+        long countDelta = 0;
+        long impressionDelta = 0;
+        LocalDateTime reviewedAt = null;
+
+        if (before != null && before.isCounted()) {
+            sumDelta -= before.getAverageRating();
+            impressionDelta -= before.getOverallImpression();
+            countDelta--;
+        }
+        if (after != null && after.isCounted()) {
+            sumDelta += after.getAverageRating();
+            impressionDelta += after.getOverallImpression();
+            countDelta++;
+            reviewedAt = after.getCreatedAt();
+        }
+
+        if (sumDelta != 0.0 || countDelta != 0) {
+            locationRepository.applyRatingDelta(locationId, sumDelta, countDelta);
+        }
+        if (impressionDelta != 0 || countDelta != 0) {
+            applyPopularityDelta(locationId, countDelta, impressionDelta, reviewedAt);
+        }
+        LocationDailyStatsService.ReviewContribution contributionBefore = before != null ? before.getContribution() : null;
+        LocationDailyStatsService.ReviewContribution contributionAfter = after != null ? after.getContribution() : null;
+        locationDailyStatsService.applyReview(contributionBefore, contributionAfter);
+        ratingHistogramService.apply(contributionBefore, contributionAfter);
+    }
+
+    @Scheduled(cron = "${app.aggregates.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        int locations = locationRepository.rebuildRatingAggregates();
+        locationPopularityRepository.deleteAllInBulk();
+        int popular = locationPopularityRepository.rebuildFromReviews();
+        log.info("Rebuilt rating aggregates for {} locations and popularity for {} locations", locations, popular);
+    }
+
+    private void applyPopularityDelta(Long locationId, long countDelta, long impressionDelta, LocalDateTime reviewedAt) {
+        locationPopularityRepository.upsertDelta(locationId, countDelta, impressionDelta,
+                Math.max(countDelta, 0), Math.max(impressionDelta, 0), reviewedAt);
+    }
+
+    public static final class ReviewState {
+        private final Long locationId;
+        private final boolean counted;
+        private final double averageRating;
+        private final int overallImpression;
+        private final LocalDateTime createdAt;
+        private final LocationDailyStatsService.ReviewContribution contribution;
+
+        public ReviewState(Long locationId, boolean counted, double averageRating, int overallImpression,
+                           LocalDateTime createdAt, LocationDailyStatsService.ReviewContribution contribution) {
+            this.locationId = locationId;
+            this.counted = counted;
+            this.averageRating = averageRating;
+            this.overallImpression = overallImpression;
+            this.createdAt = createdAt;
+            this.contribution = contribution;
+        }
+
+        public Long getLocationId() {
+            return locationId;
+        }
+
+        public boolean isCounted() {
+            return counted;
+        }
+
+        public double getAverageRating() {
+            return averageRating;
+        }
+
+        public int getOverallImpression() {
+            return overallImpression;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocationDailyStatsService.ReviewContribution getContribution() {
+            return contribution;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package rs.ftn.newnow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.ftn.newnow.listener.EntityChangedEvent;
+import rs.ftn.newnow.model.Rate;
+import rs.ftn.newnow.model.Review;
+import rs.ftn.newnow.repository.ReviewRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reviews held column by column in primitive arrays, ordered by the day they were written, so
+ * admin-wide rating aggregates over a date range are a binary search plus a tight loop split
+ * across cores. Loaded at startup and kept current from committed review writes; rows of
+ * deleted reviews stay in place and are skipped.
+ */
+@Component
+@Slf4j
+public class ReviewColumnStore {
+
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    static final int DIMENSIONS = 4;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReviewRepository reviewRepository;
+
+    // Guards writes; readers work on the published snapshot without locking
+    private final Object writeLock = new Object();
+    private final Map<Long, Integer> rowsByReviewId = new HashMap<>();
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY, 0);
+    private volatile boolean ready;
+
+    public ReviewColumnStore(ReviewRepository reviewRepository) {
+        this.reviewRepository = reviewRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        List<Object[]> rows = reviewRepository.findColumnarRows();
+        synchronized (writeLock) {
+            Columns loaded = new Columns(Math.max(INITIAL_CAPACITY, rows.size()), 0);
+            rowsByReviewId.clear();
+            for (Object[] row : rows) {
+                ReviewRow review = new ReviewRow((Long) row[0], (Long) row[1], (Long) row[2],
+                        ((LocalDateTime) row[3]).toLocalDate(), true,
+                        (Integer) row[4], (Integer) row[5], (Integer) row[6], (Integer) row[7]);
+                loaded = append(loaded, review);
+            }
+            columns = loaded;
+            ready = true;
+        }
+        log.info("Loaded {} reviews into the column store", rows.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return columns.size;
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        boolean removed = event.getChangeType() == EntityChangedEvent.ChangeType.REMOVED;
+        ReviewRow row;
+        if (event.getEntity() instanceof Review review) {
+            row = ReviewRow.of(review, review.getRate(), !removed);
+        } else if (event.getEntity() instanceof Rate rate && rate.getReview() != null) {
+            row = ReviewRow.of(rate.getReview(), removed ? null : rate, true);
+        } else {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            upsert(row);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                upsert(row);
+            }
+        });
+    }
+
+    void upsert(ReviewRow review) {
+        synchronized (writeLock) {
+            Columns current = columns;
+            Integer existing = rowsByReviewId.get(review.reviewId());
+            if (existing != null && current.days[existing] == review.day()) {
+                // Same slot: overwrite in place; readers may see either version of this one row
+                current.write(existing, review);
+                return;
+            }
+            if (existing != null) {
+                current.live[existing] = 0;
+            }
+            if (review.live()) {
+                columns = append(current, review);
+            }
+        }
+    }
+
+    /**
+     * Sums the ratings of live reviews written between the two days inclusive, at locations in
+     * {@code locationIds}, or at any location when it is {@code null}.
+     */
+    public RatingTotals aggregate(LocalDate startDate, LocalDate endDate, BitSet locationIds) {
+        Columns snapshot = columns;
+        int from = snapshot.firstRowOnOrAfter((int) startDate.toEpochDay());
+        int to = snapshot.firstRowOnOrAfter((int) endDate.toEpochDay() + 1);
+        if (to - from <= PARALLEL_THRESHOLD) {
+            return snapshot.scan(from, to, locationIds);
+        }
+        return ForkJoinPool.commonPool().invoke(new ScanTask(snapshot, from, to, locationIds));
+    }
+
+    // Appends in day order; a row older than the last one is inserted and later rows shift right
+    private Columns append(Columns current, ReviewRow review) {
+        Columns target = current.size == current.capacity() ? current.grow() : current;
+        int day = (int) review.day();
+        int position = target.size;
+        if (position > 0 && target.days[position - 1] > day) {
+            position = target.firstRowOnOrAfter(day + 1);
+            target = target.copy();
+            target.shiftRight(position);
+            for (int row = position + 1; row <= target.size; row++) {
+                rowsByReviewId.put(target.reviewIds[row], row);
+            }
+        }
+        target.write(position, review);
+        target.reviewIds[position] = review.reviewId();
+        rowsByReviewId.put(review.reviewId(), position);
+        return new Columns(target, target.size + 1);
+    }
+
+    record ReviewRow(Long reviewId, Long locationId, Long eventId, LocalDate date, boolean live,
+                     Integer performance, Integer soundAndLighting, Integer venue, Integer overallImpression) {
+
+        static ReviewRow of(Review review, Rate rate, boolean exists) {
+            return new ReviewRow(review.getId(), review.getLocation().getId(), review.getEvent().getId(),
+                    review.getCreatedAt().toLocalDate(),
+                    exists && !review.getDeleted() && !review.getDeletedByManager(),
+                    rate != null ? rate.getPerformance() : null,
+                    rate != null ? rate.getSoundAndLighting() : null,
+                    rate != null ? rate.getVenue() : null,
+                    rate != null ? rate.getOverallImpression() : null);
+        }
+
+        long day() {
+            return date.toEpochDay();
+        }
+    }
+
+    /**
+     * Review count plus, per rate dimension in the order performance, sound and lighting, venue,
+     * overall impression, the sum and number of the scores given.
+     */
+    public record RatingTotals(long reviewCount, long[] sums, long[] counts) {
+
+        public Double average(int dimension) {
+            return counts[dimension] > 0 ? (double) sums[dimension] / counts[dimension] : null;
+        }
+
+        RatingTotals plus(RatingTotals other) {
+            long[] mergedSums = new long[DIMENSIONS];
+            long[] mergedCounts = new long[DIMENSIONS];
+            for (int i = 0; i < DIMENSIONS; i++) {
+                mergedSums[i] = sums[i] + other.sums[i];
+                mergedCounts[i] = counts[i] + other.counts[i];
+            }
+            return new RatingTotals(reviewCount + other.reviewCount, mergedSums, mergedCounts);
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<RatingTotals> {
+        private final Columns columns;
+        private final int from;
+        private final int to;
+        private final BitSet locationIds;
+
+        ScanTask(Columns columns, int from, int to, BitSet locationIds) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.locationIds = locationIds;
+        }
+
+        @Override
+        protected RatingTotals compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return columns.scan(from, to, locationIds);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(columns, from, middle, locationIds);
+            left.fork();
+            RatingTotals right = new ScanTask(columns, middle, to, locationIds).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    /**
+     * One published view of the arrays. Appends fill slots past {@code size} and publish a new
+     * view sharing the same arrays, so an older view never sees a half-written row.
+     */
+    private static final class Columns {
+        final long[] reviewIds;
+        final int[] locationIds;
+        final int[] eventIds;
+        final int[] days;
+        final byte[] performance;
+        final byte[] soundAndLighting;
+        final byte[] venue;
+        final byte[] overallImpression;
+        final byte[] live;
+        final int size;
+
+        Columns(int capacity, int size) {
+            this(new long[capacity], new int[capacity], new int[capacity], new int[capacity], new byte[capacity],
+                    new byte[capacity], new byte[capacity], new byte[capacity], new byte[capacity], size);
+        }
+
+        Columns(Columns arrays, int size) {
+            this(arrays.reviewIds, arrays.locationIds, arrays.eventIds, arrays.days, arrays.performance,
+                    arrays.soundAndLighting, arrays.venue, arrays.overallImpression, arrays.live, size);
+        }
+
+        private Columns(long[] reviewIds, int[] locationIds, int[] eventIds, int[] days, byte[] performance,
+                        byte[] soundAndLighting, byte[] venue, byte[] overallImpression, byte[] live, int size) {
+            this.reviewIds = reviewIds;
+            this.locationIds = locationIds;
+            this.eventIds = eventIds;
+            this.days = days;
+            this.performance = performance;
+            this.soundAndLighting = soundAndLighting;
+            this.venue = venue;
+            this.overallImpression = overallImpression;
+            this.live = live;
+            this.size = size;
+        }
+
+        int capacity() {
+            return days.length;
+        }
+
+        Columns grow() {
+            return resized(capacity() * 2);
+        }
+
+        Columns copy() {
+            return resized(size == capacity() ? capacity() * 2 : capacity());
+        }
+
+        private Columns resized(int capacity) {
+            return new Columns(Arrays.copyOf(reviewIds, capacity), Arrays.copyOf(locationIds, capacity),
+                    Arrays.copyOf(eventIds, capacity), Arrays.copyOf(days, capacity),
+                    Arrays.copyOf(performance, capacity), Arrays.copyOf(soundAndLighting, capacity),
+                    Arrays.copyOf(venue, capacity), Arrays.copyOf(overallImpression, capacity),
+                    Arrays.copyOf(live, capacity), size);
+        }
+
+        void shiftRight(int position) {
+            int length = size - position;
+            System.arraycopy(reviewIds, position, reviewIds, position + 1, length);
+            System.arraycopy(locationIds, position, locationIds, position + 1, length);
+            System.arraycopy(eventIds, position, eventIds, position + 1, length);
+            System.arraycopy(days, position, days, position + 1, length);
+            System.arraycopy(performance, position, performance, position + 1, length);
+            System.arraycopy(soundAndLighting, position, soundAndLighting, position + 1, length);
+            System.arraycopy(venue, position, venue, position + 1, length);
+            System.arraycopy(overallImpression, position, overallImpression, position + 1, length);
+            System.arraycopy(live, position, live, position + 1, length);
+        }
+
+        void write(int row, ReviewRow review) {
+            locationIds[row] = Math.toIntExact(review.locationId());
+            eventIds[row] = Math.toIntExact(review.eventId());
+            days[row] = (int) review.day();
+            performance[row] = score(review.performance());
+            soundAndLighting[row] = score(review.soundAndLighting());
+            venue[row] = score(review.venue());
+            overallImpression[row] = score(review.overallImpression());
+            live[row] = (byte) (review.live() ? 1 : 0);
+        }
+
+        int firstRowOnOrAfter(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (days[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        RatingTotals scan(int from, int to, BitSet locationFilter) {
+            long reviews = 0;
+            long performanceSum = 0, performanceCount = 0;
+            long soundSum = 0, soundCount = 0;
+            long venueSum = 0, venueCount = 0;
+            long overallSum = 0, overallCount = 0;
+            for (int row = from; row < to; row++) {
+                if (live[row] == 0 || (locationFilter != null && !locationFilter.get(locationIds[row]))) {
+                    continue;
+                }
+                reviews++;
+                int score = performance[row];
+                if (score != 0) {
+                    performanceSum += score;
+                    performanceCount++;
+                }
+                score = soundAndLighting[row];
+                if (score != 0) {
+                    soundSum += score;
+                    soundCount++;
+                }
+                score = venue[row];
+                if (score != 0) {
+                    venueSum += score;
+                    venueCount++;
+                }
+                score = overallImpression[row];
+                if (score != 0) {
+                    overallSum += score;
+                    overallCount++;
+                }
+            }
+            return new RatingTotals(reviews,
+                    new long[]{performanceSum, soundSum, venueSum, overallSum},
+                    new long[]{performanceCount, soundCount, venueCount, overallCount});
+        }
+
+        // Zero marks a missing score; valid scores are 1-10
+        private static byte score(Integer value) {
+            return value != null ? value.byteValue() : 0;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.*;
@@ -15,7 +16,6 @@ import rs.ftn.newnow.exception.BusinessException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +25,8 @@ public class ReviewService {
     private final EventRepository eventRepository;
     private final LocationRepository locationRepository;
     private final UserRepository userRepository;
-    private final ManagesRepository managesRepository;
+    private final ManagerAuthorizationIndex managerAuthorizationIndex;
+    private final ReviewAggregateService reviewAggregateService;
     private static final int EDIT_DEADLINE_HOURS = 24;
 
     @Transactional
@@ -79,7 +80,7 @@ public class ReviewService {
         review.setRate(rate);
 
         review = reviewRepository.save(review);
-        updateLocationRating(location);
+        reviewAggregateService.apply(null, reviewAggregateService.capture(review));
 
         return mapToDetailsDTO(review);
     }
@@ -108,6 +109,8 @@ public class ReviewService {
             throw new BusinessException("Review edit deadline has passed");
         }
 
+        ReviewAggregateService.ReviewState before = reviewAggregateService.capture(review);
+
         Rate rate = review.getRate();
         rate.setPerformance(dto.getPerformance());
         rate.setSoundAndLighting(dto.getSoundAndLighting());
@@ -116,7 +119,7 @@ public class ReviewService {
         review.setComment(dto.getComment());
 
         review = reviewRepository.save(review);
-        updateLocationRating(review.getLocation());
+        reviewAggregateService.apply(before, reviewAggregateService.capture(review));
 
         return mapToDetailsDTO(review);
     }
@@ -133,9 +136,10 @@ public class ReviewService {
             throw new BusinessException("You can only delete your own reviews");
         }
 
+        ReviewAggregateService.ReviewState before = reviewAggregateService.capture(review);
         review.setDeleted(true);
         reviewRepository.save(review);
-        updateLocationRating(review.getLocation());
+        reviewAggregateService.apply(before, reviewAggregateService.capture(review));
     }
 
     @Transactional(readOnly = true)
@@ -144,7 +148,7 @@ public class ReviewService {
                 .orElseThrow(() -> new BusinessException("Location not found"));
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Review> reviews;
+        Page<ReviewDetailsDTO> reviews;
 
         boolean ascending = "asc".equalsIgnoreCase(order);
 
@@ -159,7 +163,33 @@ public class ReviewService {
         }
 
         // Filter out hidden reviews for public view
-        return reviews.map(this::mapToDetailsDTO);
+        return reviews;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReviewDetailsDTO> getLocationReviewsByCursor(Long locationId, String sort, String order,
+                                                                           String cursor, int size) {
+        if ("rating".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Cursor pagination is only supported when sorting by date");
+        }
+        locationRepository.findByIdAndDeletedFalse(locationId)
+                .orElseThrow(() -> new BusinessException("Location not found"));
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime afterCreatedAt = after != null ? after.getSortKey(LocalDateTime::parse) : null;
+        Long afterId = after != null ? after.getId() : null;
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<ReviewDetailsDTO> reviews = "asc".equalsIgnoreCase(order)
+                ? reviewRepository.findDetailsByLocationIdOrderByDateAfter(locationId, afterCreatedAt, afterId, pageable)
+                : reviewRepository.findDetailsByLocationIdOrderByDateBefore(locationId, afterCreatedAt, afterId, pageable);
+
+        String nextCursor = null;
+        if (reviews.hasNext()) {
+            ReviewDetailsDTO last = reviews.getContent().get(reviews.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageResponse<>(reviews.getContent(), nextCursor, reviews.hasNext());
     }
 
     @Transactional(readOnly = true)
@@ -168,7 +198,7 @@ public class ReviewService {
                 .orElseThrow(() -> new BusinessException("Location not found"));
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Review> reviews;
+        Page<ReviewDetailsDTO> reviews;
 
         boolean ascending = "asc".equalsIgnoreCase(order);
 
@@ -183,7 +213,7 @@ public class ReviewService {
                     reviewRepository.findByLocationIdIncludingHiddenOrderByDate(locationId, pageable);
         }
 
-        return reviews.map(this::mapToDetailsDTO);
+        return reviews;
     }
 
     @Transactional
@@ -196,8 +226,10 @@ public class ReviewService {
 
         validateManagerAccess(user.getId(), review.getLocation().getId());
 
+        ReviewAggregateService.ReviewState before = reviewAggregateService.capture(review);
         review.setHidden(hidden);
         reviewRepository.save(review);
+        reviewAggregateService.apply(before, reviewAggregateService.capture(review));
     }
 
     @Transactional
@@ -210,42 +242,24 @@ public class ReviewService {
 
         validateManagerAccess(user.getId(), review.getLocation().getId());
 
+        ReviewAggregateService.ReviewState before = reviewAggregateService.capture(review);
         review.setDeletedByManager(true);
         reviewRepository.save(review);
-        updateLocationRating(review.getLocation());
+        reviewAggregateService.apply(before, reviewAggregateService.capture(review));
     }
 
     @Transactional(readOnly = true)
     public List<ReviewDetailsDTO> getLatestReviewsForLocation(Long locationId, int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        List<Review> reviews = reviewRepository.findTop3ByLocationId(locationId, pageable);
-        return reviews.stream()
-                .map(this::mapToDetailsDTO)
-                .collect(Collectors.toList());
+        return reviewRepository.findLatestDetailsByLocationId(locationId, pageable);
     }
 
     private void validateManagerAccess(Long userId, Long locationId) {
-        List<Manages> activeManages = managesRepository.findActiveManagement(
-                userId, locationId, LocalDate.now());
-        
-        if (activeManages.isEmpty()) {
+        if (!managerAuthorizationIndex.isManager(userId, locationId)) {
             throw new BusinessException("You are not a manager of this location");
         }
     }
 
-    private void updateLocationRating(Location location) {
-        List<Review> reviews = reviewRepository.findByLocationIdAndNotDeleted(location.getId(), Pageable.unpaged()).getContent();
-        
-        double averageRating = reviews.stream()
-                .filter(r -> !r.getDeletedByManager())
-                .mapToDouble(r -> r.getRate().getAverageRating())
-                .average()
-                .orElse(0.0);
-        
-        location.setTotalRating(averageRating);
-        locationRepository.save(location);
-    }
-
     private ReviewDetailsDTO mapToDetailsDTO(Review review) {
         ReviewDetailsDTO dto = new ReviewDetailsDTO();
         dto.setId(review.getId());
@@ -0,0 +1,119 @@
+package rs.ftn.newnow.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rs.ftn.newnow.listener.EntityChangedEvent;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps trigram indexes over the text columns that location and event search match
+ * with {@code LIKE '%term%'}. The indexes only ever over-approximate: writes are added
+ * as soon as they are flushed and narrowed or removed once their transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    static final int MAX_CANDIDATES = 1000;
+
+    private final LocationRepository locationRepository;
+    private final EventRepository eventRepository;
+
+    private final TrigramIndex locationIndex = new TrigramIndex();
+    private final TrigramIndex eventIndex = new TrigramIndex();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndexes() {
+        for (Object[] row : locationRepository.findSearchableText()) {
+            locationIndex.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+        }
+        for (Object[] row : eventRepository.findSearchableText()) {
+            eventIndex.add((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        ready = true;
+        log.info("Built search indexes for {} locations and {} events", locationIndex.size(), eventIndex.size());
+    }
+
+    /**
+     * Ids of locations that may match every non-blank term, or empty when the
+     * terms cannot narrow the search and the caller should scan instead.
+     */
+    public Optional<Set<Long>> locationCandidates(String... terms) {
+        return candidates(locationIndex, terms);
+    }
+
+    public Optional<Set<Long>> eventCandidates(String... terms) {
+        return candidates(eventIndex, terms);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.getEntity() instanceof Location location) {
+            index(locationIndex, location.getId(), event.getChangeType(),
+                    location.getName(), location.getAddress(), location.getType(), location.getDescription());
+        } else if (event.getEntity() instanceof Event e) {
+            index(eventIndex, e.getId(), event.getChangeType(), e.getType(), e.getAddress());
+        }
+    }
+
+    private void index(TrigramIndex index, Long id, EntityChangedEvent.ChangeType changeType, String... texts) {
+        boolean removed = changeType == EntityChangedEvent.ChangeType.REMOVED;
+        if (!removed) {
+            index.add(id, texts);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (removed) {
+                index.remove(id);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (removed) {
+                    index.remove(id);
+                } else {
+                    index.put(id, texts);
+                }
+            }
+        });
+    }
+
+    private Optional<Set<Long>> candidates(TrigramIndex index, String... terms) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<Long> result = null;
+        for (String term : terms) {
+            Set<Long> ids = index.candidates(term);
+            if (ids == null) {
+                continue;
+            }
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+        }
+        if (result == null || result.size() > MAX_CANDIDATES) {
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+}
@@ -5,16 +5,24 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.dto.CursorPageResponse;
 import rs.ftn.newnow.dto.EventDTO;
 import rs.ftn.newnow.dto.LocationDTO;
 import rs.ftn.newnow.model.Event;
 import rs.ftn.newnow.model.Location;
 import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.EventSpecifications;
 import rs.ftn.newnow.repository.LocationRepository;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,15 +32,30 @@ public class SearchService {
 
     private final LocationRepository locationRepository;
     private final EventRepository eventRepository;
+    private final SearchIndexService searchIndexService;
 
     public Page<LocationDTO> searchLocations(String q, String type, String address, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Location> locations;
 
         if (q != null && !q.trim().isEmpty()) {
-            locations = locationRepository.searchByQuery(q, pageable);
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(q);
+            if (candidates.isEmpty()) {
+                locations = locationRepository.searchByQuery(q, pageable);
+            } else if (candidates.get().isEmpty()) {
+                locations = Page.empty(pageable);
+            } else {
+                locations = locationRepository.searchByQueryAmong(q, candidates.get(), pageable);
+            }
         } else if ((type != null && !type.trim().isEmpty()) || (address != null && !address.trim().isEmpty())) {
-            locations = locationRepository.searchByTypeAndAddress(type, address, pageable);
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(type, address);
+            if (candidates.isEmpty()) {
+                locations = locationRepository.searchByTypeAndAddress(type, address, pageable);
+            } else if (candidates.get().isEmpty()) {
+                locations = Page.empty(pageable);
+            } else {
+                locations = locationRepository.searchByTypeAndAddressAmong(type, address, candidates.get(), pageable);
+            }
         } else {
             locations = locationRepository.findByDeletedFalse(pageable);
         }
@@ -64,12 +87,116 @@ public class SearchService {
             finalStartDate = referenceDate;
         }
 
-        Page<Event> events = eventRepository.searchEvents(
-                type, locationId, address, minPrice, maxPrice, finalStartDate, finalEndDate, pageable);
+        Optional<Set<Long>> candidates = searchIndexService.eventCandidates(type, address);
+        if (candidates.isPresent() && candidates.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Page<Event> events = eventRepository.findAll(
+                eventFilter(type, locationId, address, minPrice, maxPrice, finalStartDate, finalEndDate,
+                        candidates.orElse(null)),
+                pageable);
 
         return events.map(this::convertToDTO);
     }
 
+    public CursorPageResponse<LocationDTO> searchLocationsByCursor(String q, String type, String address,
+                                                                  String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Long afterId = after != null ? after.getId() : null;
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Location> locations;
+
+        if (q != null && !q.trim().isEmpty()) {
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(q);
+            if (candidates.isEmpty()) {
+                locations = locationRepository.searchByQueryAfter(q, afterId, pageable);
+            } else if (candidates.get().isEmpty()) {
+                return new CursorPageResponse<>(List.of(), null, false);
+            } else {
+                locations = locationRepository.searchByQueryAfterAmong(q, candidates.get(), afterId, pageable);
+            }
+        } else if ((type != null && !type.trim().isEmpty()) || (address != null && !address.trim().isEmpty())) {
+            Optional<Set<Long>> candidates = searchIndexService.locationCandidates(type, address);
+            if (candidates.isEmpty()) {
+                locations = locationRepository.searchByTypeAndAddressAfter(type, address, afterId, pageable);
+            } else if (candidates.get().isEmpty()) {
+                return new CursorPageResponse<>(List.of(), null, false);
+            } else {
+                locations = locationRepository.searchByTypeAndAddressAfterAmong(type, address, candidates.get(),
+                        afterId, pageable);
+            }
+        } else {
+            locations = locationRepository.findByDeletedFalseAfter(afterId, pageable);
+        }
+
+        String nextCursor = null;
+        if (locations.hasNext()) {
+            Location last = locations.getContent().get(locations.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getId());
+        }
+        return new CursorPageResponse<>(locations.map(this::convertToDTO).getContent(), nextCursor, locations.hasNext());
+    }
+
+    public CursorPageResponse<EventDTO> searchEventsByCursor(
+            String type,
+            Long locationId,
+            String address,
+            Double minPrice,
+            Double maxPrice,
+            LocalDate startDate,
+            LocalDate endDate,
+            Boolean past,
+            Boolean future,
+            String cursor,
+            int size) {
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDate referenceDate = LocalDate.now();
+        LocalDate finalStartDate = startDate;
+        LocalDate finalEndDate = endDate;
+
+        if (past != null && past) {
+            finalEndDate = referenceDate.minusDays(1);
+        } else if (future != null && future) {
+            finalStartDate = referenceDate;
+        }
+
+        Optional<Set<Long>> candidates = searchIndexService.eventCandidates(type, address);
+        if (candidates.isPresent() && candidates.get().isEmpty()) {
+            return new CursorPageResponse<>(List.of(), null, false);
+        }
+
+        Specification<Event> filter = eventFilter(type, locationId, address, minPrice, maxPrice,
+                finalStartDate, finalEndDate, candidates.orElse(null))
+                .and(after != null
+                        ? EventSpecifications.after(after.getSortKey(LocalDate::parse), after.getId())
+                        : null);
+        Slice<Event> events = eventRepository.findBy(filter,
+                query -> query.slice(PageRequest.of(0, size, Sort.by("date", "id"))));
+
+        String nextCursor = null;
+        if (events.hasNext()) {
+            Event last = events.getContent().get(events.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getDate(), last.getId());
+        }
+        return new CursorPageResponse<>(events.map(this::convertToDTO).getContent(), nextCursor, events.hasNext());
+    }
+
+    private Specification<Event> eventFilter(String type, Long locationId, String address, Double minPrice,
+                                             Double maxPrice, LocalDate startDate, LocalDate endDate,
+                                             Set<Long> candidateIds) {
+        return EventSpecifications.notDeleted()
+                .and(EventSpecifications.idIn(candidateIds))
+                .and(EventSpecifications.typeContains(type))
+                .and(EventSpecifications.atLocation(locationId))
+                .and(EventSpecifications.addressContains(address))
+                .and(EventSpecifications.priceAtLeast(minPrice))
+                .and(EventSpecifications.priceAtMost(maxPrice))
+                .and(EventSpecifications.dateFrom(startDate))
+                .and(EventSpecifications.dateTo(endDate));
+    }
+
     private LocationDTO convertToDTO(Location location) {
         LocationDTO dto = new LocationDTO();
         dto.setId(location.getId());
@@ -93,9 +220,7 @@ public class SearchService {
         dto.setRecurrent(event.getRecurrent());
         dto.setLocationId(event.getLocation().getId());
         dto.setLocationName(event.getLocation().getName());
-        if (event.getImage() != null) {
-            dto.setImageUrl(event.getImage().getPath());
-        }
+        dto.setImageUrl(event.getImageUrl());
         return dto;
     }
 }
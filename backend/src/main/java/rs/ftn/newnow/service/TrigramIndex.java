@@ -0,0 +1,160 @@
+package rs.ftn.newnow.service;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from lower-cased, accent-folded character trigrams to document ids.
+ * A document contains a substring only if it contains all of that substring's trigrams,
+ * so {@link #candidates(String)} returns a superset of the ids whose text matches
+ * {@code LIKE '%term%'}; callers still have to confirm matches against the database.
+ * Folding mirrors accent-insensitive collations, where {@code cacak} matches {@code Čačak}.
+ */
+public final class TrigramIndex {
+
+    public static final int GRAM = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the trigrams of {@code texts} to the document, keeping the ones it already had.
+     */
+    public void add(long id, String... texts) {
+        Set<String> grams = trigrams(texts);
+        lock.writeLock().lock();
+        try {
+            Set<String> existing = documents.computeIfAbsent(id, key -> new HashSet<>());
+            for (String gram : grams) {
+                if (existing.add(gram)) {
+                    postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces everything indexed for the document with the trigrams of {@code texts}.
+     */
+    public void put(long id, String... texts) {
+        Set<String> grams = trigrams(texts);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, grams);
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of documents containing every trigram of {@code term}, or {@code null}
+     * when the term is shorter than a trigram or holds {@code LIKE} wildcards or escapes,
+     * and so cannot narrow the search.
+     */
+    public Set<Long> candidates(String term) {
+        if (term == null || term.trim().length() < GRAM || hasLikeMetacharacters(term)) {
+            return null;
+        }
+        Set<String> grams = trigrams(term.trim());
+        lock.readLock().lock();
+        try {
+            Set<Long> smallest = null;
+            for (String gram : grams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptySet();
+                }
+                if (smallest == null || ids.size() < smallest.size()) {
+                    smallest = ids;
+                }
+            }
+            Set<Long> result = new HashSet<>();
+            for (Long id : smallest) {
+                if (documents.get(id).containsAll(grams)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long id) {
+        Set<String> grams = documents.remove(id);
+        if (grams == null) {
+            return;
+        }
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    static Set<String> trigrams(String... texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = fold(text);
+            for (int i = 0; i + GRAM <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    // Decomposes accented letters and drops the marks; đ has no decomposition so it is mapped directly
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasLikeMetacharacters(String term) {
+        return term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || term.indexOf('\\') >= 0;
+    }
+}
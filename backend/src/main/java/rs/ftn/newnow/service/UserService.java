@@ -93,6 +93,7 @@ public class UserService {
                 newImage.setUser(user);
                 imageRepository.save(newImage);
             }
+            user.setAvatarUrl(imageUrl);
 
             log.info("Avatar updated successfully for user: {}", email);
             return imageUrl;
@@ -188,9 +189,7 @@ public class UserService {
         dto.setCreatedAt(user.getCreatedAt());
         dto.setRoles(user.getRoles().stream().map(Enum::name).collect(Collectors.toSet()));
 
-        if (user.getProfileImage() != null) {
-            dto.setAvatarUrl(user.getProfileImage().getPath());
-        }
+        dto.setAvatarUrl(user.getAvatarUrl());
 
         return dto;
     }
@@ -0,0 +1,125 @@
+package rs.ftn.newnow.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import rs.ftn.newnow.NewNowApplication;
+import rs.ftn.newnow.config.TestEmailConfig;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Image;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.ImageRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Lists 1,000 events with images through {@code GET /api/events} on the H2 test profile
+ * and prints how many statements a single request prepares.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventListingBenchmark {
+
+    private static final int EVENTS = 1000;
+    private static final int LOCATIONS = 20;
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(NewNowApplication.class, TestEmailConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.rs.ftn.newnow=WARN")
+                .run();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        seed();
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        listEvents();
+        System.out.printf("%nGET /api/events?size=%d prepared %d statements%n",
+                pageSize, statistics.getPrepareStatementCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void listEvents() throws Exception {
+        mockMvc.perform(get("/api/events").param("size", String.valueOf(pageSize)))
+                .andExpect(status().isOk());
+    }
+
+    private void seed() {
+        LocationRepository locationRepository = context.getBean(LocationRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        ImageRepository imageRepository = context.getBean(ImageRepository.class);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            Location[] locations = new Location[LOCATIONS];
+            for (int i = 0; i < LOCATIONS; i++) {
+                Location location = new Location();
+                location.setName("Venue " + i);
+                location.setAddress("Bulevar " + i);
+                location.setType("Club");
+                locations[i] = locationRepository.save(location);
+            }
+            for (int i = 0; i < EVENTS; i++) {
+                Event event = new Event();
+                event.setName("Event " + i);
+                event.setAddress("Dunavska " + i);
+                event.setType(i % 2 == 0 ? "concert" : "party");
+                event.setDate(LocalDate.now().plusDays(i % 60));
+                event.setPrice((double) (i % 5) * 10);
+                event.setLocation(locations[i % LOCATIONS]);
+                event.setImageUrl("/uploads/events/event-" + i + ".jpg");
+                event = eventRepository.save(event);
+
+                Image image = new Image();
+                image.setPath(event.getImageUrl());
+                image.setEvent(event);
+                imageRepository.save(image);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventListingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package rs.ftn.newnow.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import rs.ftn.newnow.security.JwtUtil;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the same bearer token the way a request used to (key decoded and parser built per claim,
+ * three parses per request), with a parser built once, and through the verified-token cache.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "TestSecretKeyThatShouldBeAtLeast256BitsLongForHS256AlgorithmTesting";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L, 10_000);
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+        token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER", "ROLE_MANAGER"));
+    }
+
+    @Benchmark
+    public boolean parserPerClaim() {
+        String email = freshParser().parseSignedClaims(token).getPayload().getSubject();
+        String subject = freshParser().parseSignedClaims(token).getPayload().getSubject();
+        Date expiration = freshParser().parseSignedClaims(token).getPayload().getExpiration();
+        return subject.equals(email) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims verifiedTokenCache() {
+        return jwtUtil.parseToken(token);
+    }
+
+    private JwtParser freshParser() {
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
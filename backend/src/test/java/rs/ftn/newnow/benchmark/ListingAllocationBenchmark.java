@@ -0,0 +1,120 @@
+package rs.ftn.newnow.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import rs.ftn.newnow.NewNowApplication;
+import rs.ftn.newnow.config.TestEmailConfig;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests a 100 row page from each public listing endpoint on the H2 test profile and reports
+ * heap allocated per request, both as {@code gc.alloc.rate.norm} from the GC profiler and as
+ * a single-request figure printed during setup.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingAllocationBenchmark {
+
+    private static final int LOCATIONS = 500;
+    private static final int EVENTS = 2000;
+    private static final String PAGE_SIZE = "100";
+
+    @Param({"/api/locations", "/api/events", "/api/search/locations"})
+    private String endpoint;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(NewNowApplication.class, TestEmailConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.rs.ftn.newnow=WARN")
+                .run();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        seed();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        list();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        list();
+        System.out.printf("%nGET %s?size=%s allocated %,d bytes%n",
+                endpoint, PAGE_SIZE, threads.getCurrentThreadAllocatedBytes() - before);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void list() throws Exception {
+        mockMvc.perform(get(endpoint).param("size", PAGE_SIZE))
+                .andExpect(status().isOk());
+    }
+
+    private void seed() {
+        LocationRepository locationRepository = context.getBean(LocationRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            Location[] locations = new Location[LOCATIONS];
+            for (int i = 0; i < LOCATIONS; i++) {
+                Location location = new Location();
+                location.setName("Venue " + i);
+                location.setAddress("Bulevar " + i);
+                location.setType(i % 2 == 0 ? "Club" : "Bar");
+                location.setDescription("Benchmark venue " + i);
+                locations[i] = locationRepository.save(location);
+            }
+            for (int i = 0; i < EVENTS; i++) {
+                Event event = new Event();
+                event.setName("Event " + i);
+                event.setAddress("Dunavska " + i);
+                event.setType(i % 2 == 0 ? "concert" : "party");
+                event.setDate(LocalDate.now().plusDays(i % 60));
+                event.setPrice((double) (i % 5) * 10);
+                event.setLocation(locations[i % LOCATIONS]);
+                eventRepository.save(event);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListingAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
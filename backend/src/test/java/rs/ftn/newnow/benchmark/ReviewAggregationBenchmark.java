@@ -0,0 +1,163 @@
+package rs.ftn.newnow.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.NewNowApplication;
+import rs.ftn.newnow.config.TestEmailConfig;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.model.User;
+import rs.ftn.newnow.model.enums.Role;
+import rs.ftn.newnow.repository.EventRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.ReviewRepository;
+import rs.ftn.newnow.repository.UserRepository;
+import rs.ftn.newnow.service.ReviewColumnStore;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums rating averages for one location type over a 90 day range, once with the grouped SQL
+ * query on the H2 test profile and once with a scan of {@link ReviewColumnStore}.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewAggregationBenchmark {
+
+    private static final int LOCATIONS = 200;
+    private static final int DAYS = 730;
+    private static final String[] TYPES = {"bar", "club", "cafe", "restaurant"};
+
+    @Param({"100000", "500000"})
+    private int reviews;
+
+    private ConfigurableApplicationContext context;
+    private ReviewRepository reviewRepository;
+    private ReviewColumnStore reviewColumnStore;
+    private TransactionTemplate readOnly;
+    private BitSet clubs;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(NewNowApplication.class, TestEmailConfig.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.rs.ftn.newnow=WARN")
+                .run();
+        reviewRepository = context.getBean(ReviewRepository.class);
+        reviewColumnStore = context.getBean(ReviewColumnStore.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed();
+        readOnly.executeWithoutResult(status -> reviewColumnStore.load());
+
+        clubs = new BitSet();
+        context.getBean(LocationRepository.class).findActiveIdsByType("club")
+                .forEach(id -> clubs.set(Math.toIntExact(id)));
+        endDate = LocalDate.now().minusDays(30);
+        startDate = endDate.minusDays(89);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object sqlAggregate() {
+        return readOnly.execute(status -> reviewRepository.aggregateRatingsByLocationType("club",
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()));
+    }
+
+    @Benchmark
+    public ReviewColumnStore.RatingTotals columnarAggregate() {
+        return reviewColumnStore.aggregate(startDate, endDate, clubs);
+    }
+
+    private void seed() {
+        LocationRepository locationRepository = context.getBean(LocationRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+
+        long[][] ids = new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            User user = new User();
+            user.setEmail("benchmark.reviewer@example.com");
+            user.setPassword("password");
+            user.setName("Benchmark Reviewer");
+            user.setRoles(Set.of(Role.ROLE_USER));
+            user = userRepository.save(user);
+
+            long[] locationIds = new long[LOCATIONS];
+            long[] eventIds = new long[LOCATIONS];
+            for (int i = 0; i < LOCATIONS; i++) {
+                Location location = new Location();
+                location.setName("Venue " + i);
+                location.setAddress("Bulevar " + i);
+                location.setType(TYPES[i % TYPES.length]);
+                location = locationRepository.save(location);
+                locationIds[i] = location.getId();
+
+                Event event = new Event();
+                event.setName("Event " + i);
+                event.setAddress("Dunavska " + i);
+                event.setType("concert");
+                event.setDate(LocalDate.now().minusDays(DAYS));
+                event.setRecurrent(true);
+                event.setPrice(0.0);
+                event.setLocation(location);
+                eventIds[i] = eventRepository.save(event).getId();
+            }
+            return new long[][]{{user.getId()}, locationIds, eventIds};
+        });
+
+        // Plain JDBC keeps seeding hundreds of thousands of rows out of the persistence context
+        long userId = ids[0][0];
+        List<Object[]> reviewRows = new ArrayList<>(reviews);
+        LocalDate firstDay = LocalDate.now().minusDays(DAYS);
+        for (int i = 0; i < reviews; i++) {
+            int location = random.nextInt(LOCATIONS);
+            reviewRows.add(new Object[]{
+                    Timestamp.valueOf(firstDay.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), 0)),
+                    userId, ids[1][location], ids[2][location]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (created_at, event_count, hidden, deleted, deleted_by_manager, " +
+                "user_id, location_id, event_id) VALUES (?, 1, false, false, false, ?, ?, ?)", reviewRows);
+        List<Object[]> rateRows = new ArrayList<>(reviews);
+        for (Long reviewId : jdbcTemplate.queryForList("SELECT id FROM reviews", Long.class)) {
+            rateRows.add(new Object[]{1 + random.nextInt(10), 1 + random.nextInt(10),
+                    random.nextInt(4) == 0 ? null : 1 + random.nextInt(10), 1 + random.nextInt(10), reviewId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rates (performance, sound_and_lighting, venue, overall_impression, " +
+                "review_id) VALUES (?, ?, ?, ?, ?)", rateRows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReviewAggregationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package rs.ftn.newnow.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import rs.ftn.newnow.service.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving search candidates from the trigram index with the substring
+ * scan that {@code LIKE '%term%'} performs, as the number of locations grows.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrigramSearchBenchmark {
+
+    private static final String[] TYPES = {"bar", "club", "cafe", "restaurant", "theatre", "gallery"};
+    private static final String[] STREETS = {"Bulevar", "Zmaj Jovina", "Dunavska", "Laze Teleckog", "Futoska"};
+
+    @Param({"1000", "10000", "100000"})
+    private int locations;
+
+    private TrigramIndex index;
+    private List<String[]> rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        rows = new ArrayList<>(locations);
+        for (int i = 0; i < locations; i++) {
+            String[] row = {
+                    "Venue " + Integer.toString(i, 36) + " " + TYPES[random.nextInt(TYPES.length)],
+                    STREETS[random.nextInt(STREETS.length)] + " " + random.nextInt(200),
+                    TYPES[random.nextInt(TYPES.length)],
+                    "Description of venue number " + i
+            };
+            rows.add(row);
+            index.put(i, row);
+        }
+    }
+
+    @Benchmark
+    public Set<Long> indexLookup() {
+        return index.candidates("venue " + Integer.toString(locations / 2, 36));
+    }
+
+    @Benchmark
+    public void substringScan(Blackhole blackhole) {
+        String term = ("venue " + Integer.toString(locations / 2, 36)).toLowerCase(Locale.ROOT);
+        for (String[] row : rows) {
+            for (String text : row) {
+                if (text.toLowerCase(Locale.ROOT).contains(term)) {
+                    blackhole.consume(row);
+                    break;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrigramSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
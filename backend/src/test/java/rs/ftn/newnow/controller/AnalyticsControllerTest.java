@@ -1,24 +1,37 @@
 package rs.ftn.newnow.controller;
 
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.model.*;
 import rs.ftn.newnow.model.enums.Role;
 import rs.ftn.newnow.repository.*;
+import rs.ftn.newnow.service.LocationDailyStatsService;
+import rs.ftn.newnow.service.RatingHistogramService;
+import rs.ftn.newnow.service.ReviewColumnStore;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -48,6 +61,18 @@ class AnalyticsControllerTest {
     @Autowired
     private RateRepository rateRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private LocationDailyStatsService locationDailyStatsService;
+
+    @Autowired
+    private RatingHistogramService ratingHistogramService;
+
+    @Autowired
+    private ReviewColumnStore reviewColumnStore;
+
     private Location testLocation;
     private Event testEvent;
     private User managerUser;
@@ -211,4 +236,298 @@ class AnalyticsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.locationId", is(testLocation.getId().intValue())));
     }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationSummary_SumsDailyRollupsInOneQuery() throws Exception {
+        Event freeEvent = new Event();
+        freeEvent.setName("Free Event");
+        freeEvent.setAddress("Event Address");
+        freeEvent.setType("party");
+        freeEvent.setDate(LocalDate.now().minusDays(2));
+        freeEvent.setPrice(0.0);
+        freeEvent.setRecurrent(true);
+        freeEvent.setDeleted(false);
+        freeEvent.setLocation(testLocation);
+        eventRepository.save(freeEvent);
+
+        Review unrated = new Review();
+        unrated.setUser(regularUser);
+        unrated.setLocation(testLocation);
+        unrated.setEvent(freeEvent);
+        unrated.setEventCount(2);
+        unrated.setHidden(false);
+        unrated.setDeleted(false);
+        unrated.setDeletedByManager(false);
+        unrated.setCreatedAt(LocalDateTime.now().minusDays(1));
+        reviewRepository.save(unrated);
+        // Fixtures bypass the services, so derive the rollups from them directly
+        locationDailyStatsService.rebuildLocation(testLocation.getId());
+
+        long statements = countStatements(() -> mockMvc.perform(get("/api/analytics/locations/{id}/summary", testLocation.getId())
+                        .param("period", "monthly"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEvents", is(2)))
+                .andExpect(jsonPath("$.totalReviews", is(2)))
+                .andExpect(jsonPath("$.averageRating", is(5.0)))
+                .andExpect(jsonPath("$.totalVisitors", is(1))));
+
+        // Current user and location lookups, then the rollup rows
+        assertEquals(3, statements);
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationEventCounts_ComputesAllCountsInOneQuery() throws Exception {
+        Event freeEvent = new Event();
+        freeEvent.setName("Free Event");
+        freeEvent.setAddress("Event Address");
+        freeEvent.setType("party");
+        freeEvent.setDate(LocalDate.now().plusDays(2));
+        freeEvent.setPrice(0.0);
+        freeEvent.setRecurrent(true);
+        freeEvent.setDeleted(false);
+        freeEvent.setLocation(testLocation);
+        eventRepository.save(freeEvent);
+        entityManager.flush();
+
+        long statements = countStatements(() -> mockMvc.perform(get("/api/analytics/locations/{id}/events/counts", testLocation.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalEvents", is(2)))
+                .andExpect(jsonPath("$.regularEvents", is(1)))
+                .andExpect(jsonPath("$.nonRegularEvents", is(1)))
+                .andExpect(jsonPath("$.freeEvents", is(1)))
+                .andExpect(jsonPath("$.paidEvents", is(1))));
+
+        // Current user and location lookups, then the aggregate
+        assertEquals(3, statements);
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationTimeSeries_ByDay_ReturnsContinuousBuckets() throws Exception {
+        locationDailyStatsService.rebuildLocation(testLocation.getId());
+        LocalDate today = LocalDate.now();
+
+        mockMvc.perform(get("/api/analytics/locations/{id}/timeseries", testLocation.getId())
+                        .param("granularity", "day")
+                        .param("period", "weekly"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("day")))
+                .andExpect(jsonPath("$.points", hasSize(8)))
+                .andExpect(jsonPath("$.points[0].bucketStart", is(today.minusWeeks(1).toString())))
+                .andExpect(jsonPath("$.points[7].bucketStart", is(today.toString())))
+                .andExpect(jsonPath("$.points[?(@.bucketStart == '" + today.minusDays(3) + "')].reviewCount",
+                        contains(1)))
+                .andExpect(jsonPath("$.points[?(@.bucketStart == '" + today.minusDays(3) + "')].averageRating",
+                        contains(5.0)))
+                .andExpect(jsonPath("$.points[?(@.bucketStart == '" + today.minusDays(5) + "')].eventCount",
+                        contains(1)))
+                .andExpect(jsonPath("$.points[?(@.bucketStart == '" + today + "')].reviewCount", contains(0)));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationTimeSeries_ByWeek_AlignsBucketsToMondays() throws Exception {
+        locationDailyStatsService.rebuildLocation(testLocation.getId());
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusMonths(2);
+
+        mockMvc.perform(get("/api/analytics/locations/{id}/timeseries", testLocation.getId())
+                        .param("granularity", "week")
+                        .param("period", "custom")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points[0].bucketStart", is(startDate.with(DayOfWeek.MONDAY).toString())))
+                .andExpect(jsonPath("$.points[-1:].bucketStart", contains(endDate.with(DayOfWeek.MONDAY).toString())))
+                .andExpect(jsonPath("$.points[*].reviewCount", hasItem(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationTimeSeries_WithUnknownGranularity_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/analytics/locations/{id}/timeseries", testLocation.getId())
+                        .param("granularity", "hour"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getRatingDistribution_AsManager_ReturnsHistogramsPerDimension() throws Exception {
+        ratingHistogramService.rebuildLocation(testLocation.getId());
+
+        mockMvc.perform(get("/api/analytics/locations/{id}/ratings/distribution", testLocation.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope", is("location")))
+                .andExpect(jsonPath("$.dimensions.performance.counts", hasSize(10)))
+                .andExpect(jsonPath("$.dimensions.performance.counts[4]", is(1)))
+                .andExpect(jsonPath("$.dimensions.overallImpression.median", is(5)));
+
+        mockMvc.perform(get("/api/analytics/locations/{id}/events/{eventId}/ratings/distribution",
+                        testLocation.getId(), testEvent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope", is("event")))
+                .andExpect(jsonPath("$.dimensions.venue.total", is(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getEventRatingDistribution_ForEventOfAnotherLocation_ReturnsBadRequest() throws Exception {
+        Location otherLocation = new Location();
+        otherLocation.setName("Other Location");
+        otherLocation.setAddress("Other Address 1");
+        otherLocation.setType("bar");
+        otherLocation.setDeleted(false);
+        otherLocation = locationRepository.save(otherLocation);
+        testEvent.setLocation(otherLocation);
+        eventRepository.save(testEvent);
+
+        mockMvc.perform(get("/api/analytics/locations/{id}/events/{eventId}/ratings/distribution",
+                        testLocation.getId(), testEvent.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void getRatingAggregate_AsAdmin_MatchesSqlAggregate() throws Exception {
+        testLocation.setType("Rooftop");
+        locationRepository.saveAndFlush(testLocation);
+        // Uncommitted rows never reach the store through commit callbacks, so reload it here
+        reviewColumnStore.load();
+
+        mockMvc.perform(get("/api/analytics/ratings").param("type", "rooftop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.locationCount", is(1)))
+                .andExpect(jsonPath("$.reviewCount", is(1)))
+                .andExpect(jsonPath("$.averagePerformance", is(5.0)))
+                .andExpect(jsonPath("$.averageVenue", is(4.0)))
+                .andExpect(jsonPath("$.averageOverallImpression", is(5.0)));
+
+        Object[] sql = reviewRepository.aggregateRatingsByLocationType("rooftop",
+                LocalDate.now().minusMonths(1).atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay()).get(0);
+        assertEquals(1L, ((Number) sql[0]).longValue());
+        assertEquals(4L, ((Number) sql[5]).longValue());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getRatingAggregate_AsManager_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/api/analytics/ratings"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void getLocationLeaderboard_AsAdmin_RanksLocationsFromRollups() throws Exception {
+        locationDailyStatsService.rebuildLocation(testLocation.getId());
+        // A range no other test requests, so no cached leaderboard can be served
+        LocalDate startDate = LocalDate.now().minusDays(4);
+        LocalDate endDate = LocalDate.now().minusDays(2);
+
+        mockMvc.perform(get("/api/analytics/locations/leaderboard")
+                        .param("period", "custom")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString())
+                        .param("sort", "rating")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortBy", is("rating")))
+                .andExpect(jsonPath("$.entries[0].rank", is(1)))
+                .andExpect(jsonPath("$.entries[?(@.locationId == " + testLocation.getId() + ")].reviewCount",
+                        contains(1)))
+                .andExpect(jsonPath("$.entries[?(@.locationId == " + testLocation.getId() + ")].averageRating",
+                        contains(5.0)));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    void getLocationLeaderboard_WithUnknownSort_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/analytics/locations/leaderboard").param("sort", "visitors"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getLocationLeaderboard_AsManager_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/api/analytics/locations/leaderboard"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void submitReport_AsManager_ReturnsPollableJob() throws Exception {
+        String response = mockMvc.perform(post("/api/analytics/locations/{id}/reports", testLocation.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"top-ratings\",\"limit\":5}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.type", is("top-ratings")))
+                .andExpect(jsonPath("$.locationId", is(testLocation.getId().intValue())))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(response, "$.id");
+
+        mockMvc.perform(get("/api/analytics/reports/{jobId}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(jobId)));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void submitReport_CustomSummaryWithoutDates_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/analytics/locations/{id}/reports", testLocation.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"summary\",\"period\":\"custom\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user@test.com", roles = {"USER"})
+    void submitReport_AsNonManager_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/analytics/locations/{id}/reports", testLocation.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"summary\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void getReport_WithUnknownId_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api/analytics/reports/{jobId}", "no-such-job"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void exportDailyStats_AsManager_StreamsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/analytics/locations/{id}/daily/export", testLocation.getId())
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@test.com", roles = {"MANAGER"})
+    void exportDailyStats_WithInvertedRange_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/analytics/locations/{id}/daily/export", testLocation.getId())
+                        .param("startDate", LocalDate.now().toString())
+                        .param("endDate", LocalDate.now().minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long countStatements(ThrowingRunnable action) throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
 }
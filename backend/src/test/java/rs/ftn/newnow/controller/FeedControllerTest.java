@@ -10,6 +10,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.model.*;
 import rs.ftn.newnow.repository.*;
+import rs.ftn.newnow.service.ReviewAggregateService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -38,6 +39,9 @@ class FeedControllerTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private ReviewAggregateService reviewAggregateService;
+
     private Location testLocation;
     private Event todayEvent;
     private User testUser;
@@ -98,6 +102,40 @@ class FeedControllerTest {
                 .andExpect(jsonPath("$.length()").value(3));
     }
 
+    @Test
+    void testGetTodayEvents_MatchingEtag_NotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/feed/today-events"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/feed/today-events")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetTodayEvents_AfterNewEvent_EtagChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/feed/today-events"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Event anotherEvent = new Event();
+        anotherEvent.setName("Another Today Event");
+        anotherEvent.setAddress("Event Address");
+        anotherEvent.setType("Concert");
+        anotherEvent.setDate(LocalDate.now());
+        anotherEvent.setRecurrent(false);
+        anotherEvent.setDeleted(false);
+        anotherEvent.setLocation(testLocation);
+        anotherEvent.setPrice(5.0);
+        eventRepository.save(anotherEvent);
+
+        mockMvc.perform(get("/api/feed/today-events")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     private void createReviewsForPopularLocation() {
         Event pastEvent = new Event();
         pastEvent.setName("Past Regular Event");
@@ -132,5 +170,8 @@ class FeedControllerTest {
 
             reviewRepository.save(review);
         }
+
+        // Reviews are inserted directly, so rebuild the maintained popularity counters
+        reviewAggregateService.reconcile();
     }
 }
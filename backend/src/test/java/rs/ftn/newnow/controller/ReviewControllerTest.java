@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.CreateReviewDTO;
 import rs.ftn.newnow.dto.UpdateReviewDTO;
@@ -24,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -315,6 +317,36 @@ class ReviewControllerTest {
                 .andExpect(jsonPath("$.message").value("Review deleted by manager successfully"));
     }
 
+    @Test
+    @WithMockUser(username = "manager@example.com")
+    void testExportReviews_Manager_StreamsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/manager/locations/{locationId}/reviews/export", testLocation.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"location-" + testLocation.getId() + "-reviews.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("id,createdAt,eventId")));
+    }
+
+    @Test
+    @WithMockUser(username = "manager@example.com")
+    void testExportReviews_UnknownFormat_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/manager/locations/{locationId}/reviews/export", testLocation.getId())
+                        .param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser@example.com")
+    void testExportReviews_NonManager_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/manager/locations/{locationId}/reviews/export", testLocation.getId()))
+                .andExpect(status().isForbidden());
+    }
+
     private Review createTestReview() {
         Review review = new Review();
         review.setUser(testUser);
@@ -1,5 +1,6 @@
 package rs.ftn.newnow.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -151,4 +152,137 @@ class SearchControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size", is(5)));
     }
+
+    @Test
+    void searchLocations_AfterRename_ShouldMatchOnlyNewName() throws Exception {
+        testLocation.setName("Zephyr Lounge");
+        locationRepository.saveAndFlush(testLocation);
+
+        mockMvc.perform(get("/api/search/locations")
+                        .param("q", "zephyr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Zephyr Lounge")));
+
+        mockMvc.perform(get("/api/search/locations")
+                        .param("q", "Test Location"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", not(hasItem(testLocation.getId().intValue()))));
+    }
+
+    @Test
+    void searchLocations_WithLikeWildcard_ShouldFallBackToDatabaseMatch() throws Exception {
+        mockMvc.perform(get("/api/search/locations")
+                        .param("q", "Test%Location"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", hasItem(testLocation.getId().intValue())));
+    }
+
+    @Test
+    void searchEvents_WithUnknownType_ShouldReturnEmptyPage() throws Exception {
+        mockMvc.perform(get("/api/search/events")
+                        .param("type", "xylophone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    void searchEvents_WithCursor_ShouldWalkAllEventsInDateOrder() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event();
+            event.setName("Keyset Event " + i);
+            event.setAddress("Event Address");
+            event.setType("keysetparty");
+            event.setDate(LocalDate.now().plusDays(i / 2));
+            event.setPrice(10.0);
+            event.setRecurrent(false);
+            event.setDeleted(false);
+            event.setLocation(testLocation);
+            eventRepository.save(event);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/search/events")
+                        .param("type", "keysetparty")
+                        .param("size", "2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        String secondPage = mockMvc.perform(get("/api/search/events")
+                        .param("type", "keysetparty")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Keyset Event 2")))
+                .andExpect(jsonPath("$.content[1].name", is("Keyset Event 3")))
+                .andReturn().getResponse().getContentAsString();
+        cursor = JsonPath.read(secondPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/search/events")
+                        .param("type", "keysetparty")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Keyset Event 4")))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchLocations_WithCursor_ShouldWalkIndexedMatchesInIdOrder() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Location location = new Location();
+            location.setName("Keyset Venue " + i);
+            location.setAddress("Keyset Street " + i);
+            location.setType("club");
+            location.setDeleted(false);
+            locationRepository.save(location);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/search/locations")
+                        .param("q", "keyset venue")
+                        .param("size", "2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Keyset Venue 0")))
+                .andExpect(jsonPath("$.content[1].name", is("Keyset Venue 1")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/search/locations")
+                        .param("q", "keyset venue")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Keyset Venue 2")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        mockMvc.perform(get("/api/search/locations")
+                        .param("type", "club")
+                        .param("address", "keyset street")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)));
+
+        mockMvc.perform(get("/api/search/locations")
+                        .param("q", "xylophone")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void searchLocations_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/search/locations")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -1,6 +1,9 @@
 package rs.ftn.newnow.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +23,7 @@ import rs.ftn.newnow.repository.*;
 
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,9 +51,15 @@ class EventManagementIntegrationTest {
     @Autowired
     private ManagesRepository managesRepository;
 
+    @Autowired
+    private ImageRepository imageRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User managerUser;
     private User regularUser;
     private Location testLocation;
@@ -239,4 +249,35 @@ class EventManagementIntegrationTest {
                 .param("recurrent", "false"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void searchEvents_ReadsImageUrlsWithoutPerRowSelects() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event();
+            event.setName("Listed Event " + i);
+            event.setAddress("Listed Address " + i);
+            event.setType("Party");
+            event.setDate(LocalDate.now().plusDays(i));
+            event.setLocation(testLocation);
+            event.setImageUrl("/uploads/events/listed-" + i + ".jpg");
+            event = eventRepository.save(event);
+
+            Image image = new Image();
+            image.setPath(event.getImageUrl());
+            image.setEvent(event);
+            imageRepository.save(image);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/events").param("type", "party").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].imageUrl").value("/uploads/events/listed-0.jpg"))
+                .andExpect(jsonPath("$.content[0].locationName").value("Test Location"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
 }
@@ -1,12 +1,19 @@
 package rs.ftn.newnow.integration;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import rs.ftn.newnow.dto.*;
 import rs.ftn.newnow.model.Event;
 import rs.ftn.newnow.model.Location;
@@ -33,6 +40,12 @@ class LocationIntegrationTest {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private Location testLocation;
 
     @BeforeEach
@@ -70,6 +83,29 @@ class LocationIntegrationTest {
         assertEquals("Integration Test Location", response.getLocations().get(0).getName());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void readOnlyTransaction_ShouldLoadEntitiesReadOnlyAndNeverFlush() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                Location loaded = locationRepository.findById(testLocation.getId()).orElseThrow();
+
+                assertTrue(session.isReadOnly(loaded));
+                assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+                loaded.setName("Changed During Read");
+            });
+
+            assertEquals("Integration Test Location",
+                    locationRepository.findById(testLocation.getId()).orElseThrow().getName());
+        } finally {
+            eventRepository.deleteAll();
+            locationRepository.deleteAll();
+        }
+    }
+
     @Test
     void searchLocations_ShouldFindByName() {
         LocationPageResponse response = locationService.getLocations("Integration", 0, 10);
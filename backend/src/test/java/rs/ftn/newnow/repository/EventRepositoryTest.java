@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import rs.ftn.newnow.model.Event;
 import rs.ftn.newnow.model.Location;
 
@@ -89,17 +90,13 @@ class EventRepositoryTest {
     @Test
     void shouldFindEventsByFilters() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Event> found = eventRepository.findByFilters(
-                "Music",
-                location.getId(),
-                null,
-                50.0,
-                150.0,
-                null,
-                null,
-                LocalDate.now(),
-                pageable
-        );
+        Specification<Event> filter = EventSpecifications.notDeleted()
+                .and(EventSpecifications.typeContains("Music"))
+                .and(EventSpecifications.atLocation(location.getId()))
+                .and(EventSpecifications.priceAtLeast(50.0))
+                .and(EventSpecifications.priceAtMost(150.0))
+                .and(EventSpecifications.onDate(LocalDate.now()));
+        Page<Event> found = eventRepository.findAll(filter, pageable);
 
         assertEquals(1, found.getTotalElements());
         assertEquals("Concert", found.getContent().get(0).getName());
@@ -0,0 +1,156 @@
+package rs.ftn.newnow.repository;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import rs.ftn.newnow.model.Event;
+import rs.ftn.newnow.model.Location;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EventSpecificationsExplainTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector",
+                    (StatementInspector) sql -> {
+                        STATEMENTS.add(sql);
+                        return sql;
+                    });
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private Location location;
+
+    @BeforeEach
+    void setUp() {
+        location = new Location();
+        location.setName("Explain Location");
+        location.setAddress("Explain Street 1");
+        location.setType("Club");
+        location.setCreatedAt(LocalDate.now());
+        location.setDeleted(false);
+        entityManager.persist(location);
+
+        for (int i = 0; i < 40; i++) {
+            Event event = new Event();
+            event.setName("Event " + i);
+            event.setAddress("Explain Street " + i);
+            event.setType(i % 2 == 0 ? "concert" : "party");
+            event.setDate(LocalDate.now().plusDays(i));
+            event.setPrice((double) (i % 5) * 10);
+            event.setRecurrent(i % 3 == 0);
+            event.setDeleted(i % 10 == 0);
+            event.setLocation(location);
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void dateRangeFilter_UsesDateIndex() {
+        String plan = explain(EventSpecifications.notDeleted()
+                .and(EventSpecifications.dateFrom(LocalDate.now().plusDays(5)))
+                .and(EventSpecifications.dateTo(LocalDate.now().plusDays(10))));
+
+        assertUsesIndex(plan, "IDX_EVENTS_DELETED_DATE_ID");
+    }
+
+    @Test
+    void locationFilter_UsesLocationIndex() {
+        String plan = explain(EventSpecifications.notDeleted()
+                .and(EventSpecifications.atLocation(location.getId())));
+
+        // H2 backs the foreign key with its own index on location_id; MySQL reuses idx_events_location_date
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.\\S+: LOCATION_ID = .*"), plan);
+    }
+
+    @Test
+    void priceRangeFilter_UsesPriceIndex() {
+        String plan = explain(EventSpecifications.notDeleted()
+                .and(EventSpecifications.priceAtLeast(10.0))
+                .and(EventSpecifications.priceAtMost(20.0)));
+
+        assertUsesIndex(plan, "IDX_EVENTS_DELETED_PRICE");
+    }
+
+    @Test
+    void recurrentFilter_UsesRecurrentIndex() {
+        String plan = explain(EventSpecifications.notDeleted()
+                .and(EventSpecifications.recurrent(true)));
+
+        assertUsesIndex(plan, "IDX_EVENTS_DELETED_RECURRENT_DATE");
+    }
+
+    @Test
+    void unsuppliedFilters_AreLeftOutOfQuery() {
+        String sql = capture(EventSpecifications.notDeleted()
+                .and(EventSpecifications.recurrent(null))
+                .and(EventSpecifications.priceAtLeast(null))
+                .and(EventSpecifications.onDate(LocalDate.now())));
+
+        assertFalse(sql.contains("recurrent="), sql);
+        assertFalse(sql.contains("price>="), sql);
+        assertFalse(sql.contains(" is null"), sql);
+    }
+
+    private String capture(Specification<Event> filter) {
+        STATEMENTS.clear();
+        eventRepository.findAll(filter, PageRequest.of(0, 10));
+        return STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && !sql.startsWith("select count"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private String explain(Specification<Event> filter) {
+        String sql = capture(filter);
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private void assertUsesIndex(String plan, String index) {
+        assertFalse(plan.contains("tableScan"), plan);
+        assertTrue(plan.toUpperCase().contains(index), plan);
+    }
+}
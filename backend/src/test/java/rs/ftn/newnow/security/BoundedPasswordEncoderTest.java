@@ -0,0 +1,106 @@
+package rs.ftn.newnow.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import rs.ftn.newnow.dto.PasswordHashingStatsDTO;
+import rs.ftn.newnow.exception.PasswordHashingBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void shutdown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPoolAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 4, 2, 4, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        PasswordHashingStatsDTO stats = encoder.getStats();
+        assertEquals(3, stats.getCompletedHashes());
+        assertEquals(0, stats.getRejectedHashes());
+        assertTrue(stats.getMaxHashMillis() >= stats.getAverageHashMillis());
+    }
+
+    @Test
+    void saturatedPool_FailsFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 10, 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.getStats().getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, encoder.getStats().getRejectedHashes());
+
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void hashSlowerThanMaxWait_FailsWithBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), release), 10, 1, 1, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("slow"));
+        release.countDown();
+    }
+
+    @Test
+    void calibrateStrength_PicksHighestStrengthWithinTarget() {
+        // 30 ms at strength 10 doubles per step: 60, 120, 240, 480
+        int strength = BoundedPasswordEncoder.calibrateStrength(Duration.ofMillis(250),
+                s -> TimeUnit.MILLISECONDS.toNanos(30L << (s - 10)));
+
+        assertEquals(13, strength);
+        assertEquals(BoundedPasswordEncoder.MIN_STRENGTH,
+                BoundedPasswordEncoder.calibrateStrength(Duration.ofMillis(10), s -> TimeUnit.MILLISECONDS.toNanos(500)));
+        assertEquals(BoundedPasswordEncoder.MAX_STRENGTH,
+                BoundedPasswordEncoder.calibrateStrength(Duration.ofSeconds(10), s -> TimeUnit.MICROSECONDS.toNanos(10)));
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
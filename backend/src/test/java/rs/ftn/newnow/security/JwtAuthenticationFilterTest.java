@@ -0,0 +1,96 @@
+package rs.ftn.newnow.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "TestSecretKeyThatShouldBeAtLeast256BitsLongForHS256AlgorithmTesting";
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L, 100);
+        filter = new JwtAuthenticationFilter(jwtUtil, tokenRevocationStore);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithRoles_AuthenticatesWithoutLoadingUser() throws Exception {
+        String token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER", "ROLE_MANAGER"));
+
+        Authentication authentication = authenticate(token);
+
+        assertNotNull(authentication);
+        assertEquals("user@example.com", ((UserDetails) authentication.getPrincipal()).getUsername());
+        assertEquals(Set.of("ROLE_USER", "ROLE_MANAGER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void tokenWithoutRoles_LeavesRequestUnauthenticated() throws Exception {
+        String token = ReflectionTestUtils.invokeMethod(jwtUtil, "createToken",
+                new HashMap<String, Object>(), "legacy@example.com", 60_000L);
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void invalidToken_LeavesRequestUnauthenticated() throws Exception {
+        String token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER"));
+
+        assertNull(authenticate(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(authenticate("not-a-token"));
+    }
+
+    @Test
+    void revokedToken_LeavesRequestUnauthenticated() throws Exception {
+        String token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER"));
+        when(tokenRevocationStore.isRevoked(jwtUtil.parseToken(token).getId())).thenReturn(true);
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    void refreshToken_LeavesRequestUnauthenticated() throws Exception {
+        String token = jwtUtil.generateRefreshToken("user@example.com");
+
+        assertNull(authenticate(token));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
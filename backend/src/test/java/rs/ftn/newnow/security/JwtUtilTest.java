@@ -0,0 +1,64 @@
+package rs.ftn.newnow.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "TestSecretKeyThatShouldBeAtLeast256BitsLongForHS256AlgorithmTesting";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L, 2);
+    }
+
+    @Test
+    void parseToken_ReusesVerifiedClaimsForRepeatedToken() {
+        String token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER"));
+
+        Claims first = jwtUtil.parseToken(token);
+
+        assertSame(first, jwtUtil.parseToken(token));
+        assertEquals("user@example.com", jwtUtil.extractEmail(token));
+        assertTrue(jwtUtil.validateToken(token, "user@example.com"));
+        assertFalse(jwtUtil.validateToken(token, "other@example.com"));
+    }
+
+    @Test
+    void parseToken_RejectsTamperedTokenEvenWhenOriginalIsCached() {
+        String token = jwtUtil.generateToken("user@example.com", Set.of("ROLE_USER"));
+        jwtUtil.parseToken(token);
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void parseToken_RejectsExpiredToken() {
+        String token = ReflectionTestUtils.invokeMethod(jwtUtil, "createToken",
+                new HashMap<String, Object>(), "user@example.com", -1_000L);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void verifiedTokenCache_StaysWithinMaxSize() {
+        for (int i = 0; i < 5; i++) {
+            jwtUtil.parseToken(jwtUtil.generateToken("user" + i + "@example.com", Set.of("ROLE_USER")));
+        }
+
+        Map<?, ?> verifiedTokens = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+        assertTrue(verifiedTokens.size() <= 2);
+    }
+}
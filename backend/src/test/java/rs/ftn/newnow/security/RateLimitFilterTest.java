@@ -0,0 +1,109 @@
+package rs.ftn.newnow.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rs.ftn.newnow.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                new RateLimitProperties.Rule("/api/auth/login", "POST", RateLimitProperties.Key.IP, 3, Duration.ofMinutes(1)),
+                new RateLimitProperties.Rule("/api/search/**", null, RateLimitProperties.Key.USER, 2, Duration.ofSeconds(2))));
+        rateLimiter = new RateLimiter(Duration.ofMinutes(10), 1000, now::get);
+        filter = new RateLimitFilter(properties, rateLimiter, new ObjectMapper());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void burstBeyondCapacity_IsRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = perform("POST", "/api/auth/login", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("20", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+        assertEquals(200, perform("POST", "/api/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void tokensRefillOverThePeriod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "/api/auth/login", "10.0.0.1");
+        }
+        assertEquals(429, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        assertEquals(200, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(429, perform("POST", "/api/auth/login", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void userRules_KeyAuthenticatedCallersByName() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null, List.of()));
+        perform("GET", "/api/search/events", "10.0.0.1");
+        perform("GET", "/api/search/events", "10.0.0.2");
+
+        assertEquals(429, perform("GET", "/api/search/events", "10.0.0.3").getStatus());
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, perform("GET", "/api/search/events", "10.0.0.3").getStatus());
+    }
+
+    @Test
+    void unmatchedRoutes_AreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/api/auth/login", "10.0.0.1").getStatus());
+            assertEquals(200, perform("GET", "/api/locations", "10.0.0.1").getStatus());
+        }
+        assertEquals(0, rateLimiter.size());
+    }
+
+    @Test
+    void idleBuckets_AreEvicted() throws Exception {
+        perform("POST", "/api/auth/login", "10.0.0.1");
+        perform("POST", "/api/auth/login", "10.0.0.2");
+        assertEquals(2, rateLimiter.size());
+
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(0, rateLimiter.size());
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
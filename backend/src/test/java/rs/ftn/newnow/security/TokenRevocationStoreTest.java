@@ -0,0 +1,88 @@
+package rs.ftn.newnow.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import rs.ftn.newnow.repository.RevokedTokenRepository;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenRevocationStoreTest {
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void revoke_IsSingleUse() {
+        String jti = UUID.randomUUID().toString();
+
+        assertFalse(tokenRevocationStore.isRevoked(jti));
+        assertTrue(tokenRevocationStore.revoke(jti, inMinutes(10)));
+        assertTrue(tokenRevocationStore.isRevoked(jti));
+        assertFalse(tokenRevocationStore.revoke(jti, inMinutes(10)));
+    }
+
+    @Test
+    void isRevoked_UnknownIdsMostlySkipTheTable() {
+        tokenRevocationStore.revoke(UUID.randomUUID().toString(), inMinutes(10));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(tokenRevocationStore.isRevoked(UUID.randomUUID().toString()));
+        }
+
+        // Only Bloom filter false positives reach the table, about 1% of lookups
+        assertTrue(statistics.getPrepareStatementCount() < 50, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void compact_DropsExpiredRowsAndKeepsRevokedIds() {
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        tokenRevocationStore.revoke(expired, inMinutes(-1));
+        tokenRevocationStore.revoke(live, inMinutes(10));
+
+        tokenRevocationStore.compact();
+
+        assertFalse(revokedTokenRepository.existsById(expired));
+        assertTrue(revokedTokenRepository.existsById(live));
+        assertTrue(tokenRevocationStore.isRevoked(live));
+    }
+
+    @Test
+    void bloomFilter_HasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("token-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+    }
+
+    private static Date inMinutes(int minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000L);
+    }
+}
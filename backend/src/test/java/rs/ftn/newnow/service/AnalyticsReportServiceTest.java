@@ -0,0 +1,158 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import rs.ftn.newnow.dto.CreateReportJobDTO;
+import rs.ftn.newnow.dto.LocationSummaryDTO;
+import rs.ftn.newnow.dto.ReportJobDTO;
+import rs.ftn.newnow.exception.ReportQueueFullException;
+import rs.ftn.newnow.listener.EntityChangedEvent;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.model.Review;
+import rs.ftn.newnow.model.User;
+import rs.ftn.newnow.model.enums.Role;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AnalyticsReportServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 2, 1);
+    private static final LocalDate END = LocalDate.of(2026, 2, 28);
+
+    private final AnalyticsService analyticsService = mock(AnalyticsService.class);
+    private final AnalyticsReportService reportService =
+            new AnalyticsReportService(analyticsService, 1, 1, 16, Duration.ofMinutes(5));
+    private final User manager = user(1L, Role.ROLE_MANAGER);
+
+    @AfterEach
+    void tearDown() {
+        reportService.shutdown();
+    }
+
+    @Test
+    void submit_RunsOnWorkerAndMemoizesResult() throws Exception {
+        stubSummary();
+
+        ReportJobDTO first = reportService.submit(7L, summary(), manager);
+        ReportJobDTO finished = awaitFinished(first.getId(), manager);
+
+        assertEquals("COMPLETED", finished.getStatus());
+        assertFalse(finished.getCached());
+        assertEquals(42L, ((LocationSummaryDTO) finished.getResult()).getTotalReviews());
+
+        ReportJobDTO second = reportService.submit(7L, summary(), manager);
+        assertEquals("COMPLETED", second.getStatus());
+        assertTrue(second.getCached());
+        verify(analyticsService, times(1)).getLocationSummary(eq(7L), eq("custom"), eq(START), eq(END), any());
+    }
+
+    @Test
+    void reviewInRange_InvalidatesMemoizedResult() throws Exception {
+        stubSummary();
+        awaitFinished(reportService.submit(7L, summary(), manager).getId(), manager);
+
+        reportService.onEntityChanged(new EntityChangedEvent(review(7L, END.plusDays(3)),
+                EntityChangedEvent.ChangeType.PERSISTED));
+        reportService.onEntityChanged(new EntityChangedEvent(review(8L, START),
+                EntityChangedEvent.ChangeType.PERSISTED));
+        assertTrue(reportService.submit(7L, summary(), manager).getCached());
+
+        reportService.onEntityChanged(new EntityChangedEvent(review(7L, START.plusDays(10)),
+                EntityChangedEvent.ChangeType.PERSISTED));
+        ReportJobDTO recomputed = reportService.submit(7L, summary(), manager);
+        assertFalse(recomputed.getCached());
+        awaitFinished(recomputed.getId(), manager);
+        verify(analyticsService, times(2)).getLocationSummary(eq(7L), eq("custom"), eq(START), eq(END), any());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_FailsFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(analyticsService.calculateDateRange(any(), any(), any())).thenReturn(new AnalyticsService.DateRange(START, END));
+        when(analyticsService.getLocationSummary(anyLong(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new LocationSummaryDTO();
+        });
+
+        reportService.submit(1L, summary(), manager);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        reportService.submit(2L, summary(), manager);
+
+        assertThrows(ReportQueueFullException.class, () -> reportService.submit(3L, summary(), manager));
+        release.countDown();
+    }
+
+    @Test
+    void getJob_HiddenFromOtherUsersButNotAdmins() throws Exception {
+        stubSummary();
+        String jobId = reportService.submit(7L, summary(), manager).getId();
+        awaitFinished(jobId, manager);
+
+        assertTrue(reportService.getJob(jobId, user(2L, Role.ROLE_MANAGER)).isEmpty());
+        assertTrue(reportService.getJob(jobId, user(3L, Role.ROLE_ADMIN)).isPresent());
+        assertTrue(reportService.getJob("missing", manager).isEmpty());
+    }
+
+    @Test
+    void submit_WithUnknownType_IsRejected() {
+        CreateReportJobDTO request = new CreateReportJobDTO();
+        request.setType("visitors");
+
+        assertThrows(IllegalArgumentException.class, () -> reportService.submit(7L, request, manager));
+    }
+
+    private void stubSummary() {
+        when(analyticsService.calculateDateRange(any(), any(), any())).thenReturn(new AnalyticsService.DateRange(START, END));
+        LocationSummaryDTO summary = new LocationSummaryDTO();
+        summary.setTotalReviews(42L);
+        when(analyticsService.getLocationSummary(anyLong(), any(), any(), any(), any())).thenReturn(summary);
+    }
+
+    private ReportJobDTO awaitFinished(String jobId, User user) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            ReportJobDTO job = reportService.getJob(jobId, user).orElseThrow();
+            if ("COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Report " + jobId + " did not finish");
+        return null;
+    }
+
+    private static CreateReportJobDTO summary() {
+        CreateReportJobDTO request = new CreateReportJobDTO();
+        request.setType("summary");
+        request.setPeriod("custom");
+        request.setStartDate(START);
+        request.setEndDate(END);
+        return request;
+    }
+
+    private static Review review(Long locationId, LocalDate createdOn) {
+        Location location = new Location();
+        location.setId(locationId);
+        Review review = new Review();
+        review.setLocation(location);
+        review.setCreatedAt(createdOn.atTime(12, 0));
+        return review;
+    }
+
+    private static User user(Long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
@@ -1,5 +1,8 @@
 package rs.ftn.newnow.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,13 +21,16 @@ import rs.ftn.newnow.model.enums.Role;
 import rs.ftn.newnow.repository.AccountRequestRepository;
 import rs.ftn.newnow.repository.UserRepository;
 import rs.ftn.newnow.security.JwtUtil;
+import rs.ftn.newnow.security.TokenRevocationStore;
 
 import java.time.LocalDate;
+import java.util.Date;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -46,6 +52,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
     @InjectMocks
     private AuthService authService;
 
@@ -123,7 +132,7 @@ class AuthServiceTest {
     @Test
     void login_Success() {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
-        when(jwtUtil.generateToken(anyString())).thenReturn("access-token");
+        when(jwtUtil.generateToken(anyString(), anyCollection())).thenReturn("access-token");
         when(jwtUtil.generateRefreshToken(anyString())).thenReturn("refresh-token");
 
         AuthResponse response = authService.login(loginRequest);
@@ -151,10 +160,12 @@ class AuthServiceTest {
     @Test
     void refreshToken_Success() {
         String refreshToken = "valid-refresh-token";
-        when(jwtUtil.extractEmail(anyString())).thenReturn("test@example.com");
-        when(jwtUtil.validateToken(anyString(), anyString())).thenReturn(true);
+        Claims claims = refreshClaims();
+        when(jwtUtil.parseToken(refreshToken)).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(tokenRevocationStore.revoke(claims.getId(), claims.getExpiration())).thenReturn(true);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
-        when(jwtUtil.generateToken(anyString())).thenReturn("new-access-token");
+        when(jwtUtil.generateToken(anyString(), anyCollection())).thenReturn("new-access-token");
         when(jwtUtil.generateRefreshToken(anyString())).thenReturn("new-refresh-token");
 
         AuthResponse response = authService.refreshToken(refreshToken);
@@ -168,20 +179,49 @@ class AuthServiceTest {
     @Test
     void refreshToken_InvalidToken() {
         String refreshToken = "invalid-refresh-token";
-        when(jwtUtil.extractEmail(anyString())).thenReturn("test@example.com");
-        when(jwtUtil.validateToken(anyString(), anyString())).thenReturn(false);
+        when(jwtUtil.parseToken(refreshToken)).thenThrow(new MalformedJwtException("Malformed"));
 
         assertThrows(
                 IllegalArgumentException.class,
                 () -> authService.refreshToken(refreshToken)
         );
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void refreshToken_AccessTokenRejected() {
+        Claims claims = refreshClaims();
+        when(jwtUtil.parseToken(anyString())).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(false);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> authService.refreshToken("access-token")
+        );
+        verifyNoInteractions(tokenRevocationStore);
+    }
+
+    @Test
+    void refreshToken_AlreadyUsed() {
+        Claims claims = refreshClaims();
+        when(jwtUtil.parseToken(anyString())).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(tokenRevocationStore.revoke(claims.getId(), claims.getExpiration())).thenReturn(false);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> authService.refreshToken("used-refresh-token")
+        );
+        verify(jwtUtil, never()).generateRefreshToken(anyString());
     }
 
     @Test
     void refreshToken_UserNotFound() {
         String refreshToken = "valid-refresh-token";
-        when(jwtUtil.extractEmail(anyString())).thenReturn("test@example.com");
-        when(jwtUtil.validateToken(anyString(), anyString())).thenReturn(true);
+        Claims claims = refreshClaims();
+        when(jwtUtil.parseToken(refreshToken)).thenReturn(claims);
+        when(jwtUtil.isRefreshToken(claims)).thenReturn(true);
+        when(tokenRevocationStore.revoke(claims.getId(), claims.getExpiration())).thenReturn(true);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
 
         assertThrows(
@@ -189,4 +229,27 @@ class AuthServiceTest {
                 () -> authService.refreshToken(refreshToken)
         );
     }
+
+    @Test
+    void logout_RevokesAccessAndRefreshTokens() {
+        Claims access = Jwts.claims().subject("test@example.com").id("access-id")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).build();
+        Claims refresh = refreshClaims();
+        when(jwtUtil.parseToken("access-token")).thenReturn(access);
+        when(jwtUtil.parseToken("refresh-token")).thenReturn(refresh);
+        when(jwtUtil.isRefreshToken(refresh)).thenReturn(true);
+
+        authService.logout("access-token", "refresh-token");
+
+        verify(tokenRevocationStore).revoke("access-id", access.getExpiration());
+        verify(tokenRevocationStore).revoke(refresh.getId(), refresh.getExpiration());
+    }
+
+    private Claims refreshClaims() {
+        return Jwts.claims()
+                .subject("test@example.com")
+                .id("refresh-id")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
 }
@@ -1,5 +1,8 @@
 package rs.ftn.newnow.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +11,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.CommentDTO;
 import rs.ftn.newnow.dto.CreateCommentDTO;
+import rs.ftn.newnow.dto.CursorPageResponse;
 import rs.ftn.newnow.model.*;
 import rs.ftn.newnow.repository.*;
 
@@ -43,6 +47,9 @@ class CommentServiceTest {
     @Autowired
     private ManagesRepository managesRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User testUser;
     private User managerUser;
     private User regularUser;
@@ -174,6 +181,109 @@ class CommentServiceTest {
         assertEquals("Reply to Comment 1", firstComment.getReplies().get(0).getText());
     }
 
+    @Test
+    void testGetCommentTree_RunsConstantNumberOfStatements() {
+        Comment root = createComment("Root", null);
+        for (int i = 0; i < 3; i++) {
+            Comment reply = createComment("Reply " + i, root);
+            createComment("Nested reply " + i, reply);
+        }
+        assertEquals(2, countTreeStatements());
+
+        User[] authors = {testUser, managerUser, regularUser};
+        for (int i = 0; i < 9; i++) {
+            Comment comment = createComment("Extra " + i, i % 2 == 0 ? root : null);
+            comment.setUser(authors[i % authors.length]);
+            commentRepository.save(comment);
+        }
+        assertEquals(2, countTreeStatements());
+    }
+
+    @Test
+    void testGetCommentTree_SkipsRepliesOfDeletedComments() {
+        Comment root = createComment("Root", null);
+        Comment deleted = createComment("Deleted reply", root);
+        createComment("Orphaned reply", deleted);
+        createComment("Kept reply", root);
+        deleted.setDeleted(true);
+        commentRepository.save(deleted);
+
+        List<CommentDTO> result = commentService.getCommentTree(testReview.getId());
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getReplies().size());
+        assertEquals("Kept reply", result.get(0).getReplies().get(0).getText());
+    }
+
+    @Test
+    void testCreateComment_AssignsMaterializedPath() {
+        CreateCommentDTO rootDto = new CreateCommentDTO();
+        rootDto.setText("Manager root");
+        CommentDTO root = commentService.createComment(testReview.getId(), rootDto, managerUser.getEmail());
+
+        CreateCommentDTO replyDto = new CreateCommentDTO();
+        replyDto.setText("Reply");
+        replyDto.setParentCommentId(root.getId());
+        CommentDTO reply = commentService.createComment(testReview.getId(), replyDto, regularUser.getEmail());
+        entityManager.flush();
+        entityManager.clear();
+
+        Comment storedRoot = commentRepository.findById(root.getId()).orElseThrow();
+        Comment storedReply = commentRepository.findById(reply.getId()).orElseThrow();
+        assertEquals(Comment.pathSegment(root.getId()), storedRoot.getPath());
+        assertEquals(0, storedRoot.getDepth());
+        assertEquals(storedRoot.getPath() + Comment.pathSegment(reply.getId()), storedReply.getPath());
+        assertEquals(1, storedReply.getDepth());
+    }
+
+    @Test
+    void testGetTopLevelComments_PagesRootsInCreationOrder() {
+        Comment first = createComment("Root 1", null);
+        createComment("Reply to root 1", first);
+        createComment("Root 2", null);
+        createComment("Root 3", null);
+
+        CursorPageResponse<CommentDTO> page = commentService.getTopLevelComments(testReview.getId(), null, 2);
+        assertEquals(List.of("Root 1", "Root 2"), page.getContent().stream().map(CommentDTO::getText).toList());
+        assertTrue(page.isHasNext());
+
+        page = commentService.getTopLevelComments(testReview.getId(), page.getNextCursor(), 2);
+        assertEquals(List.of("Root 3"), page.getContent().stream().map(CommentDTO::getText).toList());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void testGetReplies_PagesSubtreeDepthFirst() {
+        Comment root = createComment("Root", null);
+        Comment a = createComment("A", root);
+        createComment("B", root);
+        createComment("A1", a);
+        createComment("Other root", null);
+
+        CursorPageResponse<CommentDTO> page = commentService.getReplies(testReview.getId(), root.getId(), null, 2);
+        assertEquals(List.of("A", "A1"), page.getContent().stream().map(CommentDTO::getText).toList());
+        assertEquals(List.of(1, 2), page.getContent().stream().map(CommentDTO::getDepth).toList());
+
+        page = commentService.getReplies(testReview.getId(), root.getId(), page.getNextCursor(), 2);
+        assertEquals(List.of("B"), page.getContent().stream().map(CommentDTO::getText).toList());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void testDeleteComment_HidesItsSubtreeFromReplies() {
+        Comment root = createComment("Root", null);
+        Comment a = createComment("A", root);
+        createComment("A1", a);
+        createComment("B", root);
+
+        commentService.deleteComment(testReview.getId(), a.getId(), testUser.getEmail());
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageResponse<CommentDTO> page = commentService.getReplies(testReview.getId(), root.getId(), null, 10);
+        assertEquals(List.of("B"), page.getContent().stream().map(CommentDTO::getText).toList());
+    }
+
     @Test
     void testDeleteComment_Success() {
         Comment comment = createComment("Test comment", null);
@@ -274,6 +384,16 @@ class CommentServiceTest {
         });
     }
 
+    private long countTreeStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        commentService.getCommentTree(testReview.getId());
+        return statistics.getPrepareStatementCount();
+    }
+
     private Comment createComment(String text, Comment parentComment) {
         Comment comment = new Comment();
         comment.setText(text);
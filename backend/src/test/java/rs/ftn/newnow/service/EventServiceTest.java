@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 import rs.ftn.newnow.dto.CreateEventDTO;
@@ -20,7 +21,6 @@ import rs.ftn.newnow.model.enums.Role;
 import rs.ftn.newnow.repository.EventRepository;
 import rs.ftn.newnow.repository.ImageRepository;
 import rs.ftn.newnow.repository.LocationRepository;
-import rs.ftn.newnow.repository.ManagesRepository;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -40,7 +40,7 @@ class EventServiceTest {
     private LocationRepository locationRepository;
 
     @Mock
-    private ManagesRepository managesRepository;
+    private ManagerAuthorizationIndex managerAuthorizationIndex;
 
     @Mock
     private ImageRepository imageRepository;
@@ -51,6 +51,12 @@ class EventServiceTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private LocationDailyStatsService locationDailyStatsService;
+
     @InjectMocks
     private EventService eventService;
 
@@ -58,7 +64,6 @@ class EventServiceTest {
     private Location location;
     private Event event;
     private Image image;
-    private Manages manages;
 
     @BeforeEach
     void setUp() {
@@ -86,19 +91,14 @@ class EventServiceTest {
         event.setRecurrent(false);
         event.setDeleted(false);
         event.setLocation(location);
-        event.setImage(image);
-
-        manages = new Manages();
-        manages.setId(1L);
-        manages.setUser(user);
-        manages.setLocation(location);
-        manages.setStartDate(LocalDate.now().minusDays(30));
+        event.setImageUrl(image.getPath());
+        event.getImages().add(image);
     }
 
     @Test
     void searchEvents_Success() {
         Page<Event> eventPage = new PageImpl<>(Collections.singletonList(event));
-        when(eventRepository.findByFilters(any(), any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+        when(eventRepository.findAll(any(Specification.class), any(Pageable.class)))
                 .thenReturn(eventPage);
 
         Page<EventDTO> result = eventService.searchEvents(
@@ -155,8 +155,7 @@ class EventServiceTest {
                 "image", "test.jpg", "image/jpeg", "test image content".getBytes());
 
         when(locationRepository.findById(anyLong())).thenReturn(Optional.of(location));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.singletonList(manages));
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(true);
         when(eventRepository.save(any(Event.class))).thenReturn(event);
         when(fileStorageService.saveImage(any(MultipartFile.class), anyString()))
                 .thenReturn("/uploads/events/test.jpg");
@@ -189,8 +188,7 @@ class EventServiceTest {
                 "image", "test.jpg", "image/jpeg", "test".getBytes());
 
         when(locationRepository.findById(anyLong())).thenReturn(Optional.of(location));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(false);
 
         assertThrows(IllegalArgumentException.class, () -> 
             eventService.createEvent(1L, dto, imageFile, user)
@@ -204,8 +202,7 @@ class EventServiceTest {
         dto.setPrice(150.0);
 
         when(eventRepository.findByIdAndNotDeleted(anyLong())).thenReturn(Optional.of(event));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.singletonList(manages));
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(true);
         when(eventRepository.save(any(Event.class))).thenReturn(event);
 
         EventDTO result = eventService.updateEvent(1L, dto, user);
@@ -220,8 +217,7 @@ class EventServiceTest {
         dto.setName("Updated Event");
 
         when(eventRepository.findByIdAndNotDeleted(anyLong())).thenReturn(Optional.of(event));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(false);
 
         assertThrows(IllegalArgumentException.class, () -> 
             eventService.updateEvent(1L, dto, user)
@@ -231,8 +227,7 @@ class EventServiceTest {
     @Test
     void deleteEvent_Success() {
         when(eventRepository.findByIdAndNotDeleted(anyLong())).thenReturn(Optional.of(event));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.singletonList(manages));
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(true);
         when(eventRepository.save(any(Event.class))).thenReturn(event);
 
         eventService.deleteEvent(1L, user);
@@ -246,8 +241,7 @@ class EventServiceTest {
                 "image", "new.jpg", "image/jpeg", "new image".getBytes());
 
         when(eventRepository.findByIdAndNotDeleted(anyLong())).thenReturn(Optional.of(event));
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(Collections.singletonList(manages));
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(true);
         when(fileStorageService.saveImage(any(MultipartFile.class), anyString()))
                 .thenReturn("/uploads/events/new.jpg");
         when(imageRepository.save(any(Image.class))).thenReturn(image);
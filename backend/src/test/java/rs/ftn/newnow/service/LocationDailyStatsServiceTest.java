@@ -0,0 +1,238 @@
+package rs.ftn.newnow.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.dto.CreateReviewDTO;
+import rs.ftn.newnow.dto.ReviewDetailsDTO;
+import rs.ftn.newnow.dto.UpdateReviewDTO;
+import rs.ftn.newnow.model.*;
+import rs.ftn.newnow.model.enums.Role;
+import rs.ftn.newnow.repository.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class LocationDailyStatsServiceTest {
+
+    @Autowired
+    private LocationDailyStatsService locationDailyStatsService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ManagesRepository managesRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User firstReviewer;
+    private User secondReviewer;
+    private User managerUser;
+    private Location location;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        firstReviewer = createUser("first.reviewer@example.com");
+        secondReviewer = createUser("second.reviewer@example.com");
+        managerUser = createUser("rollup.manager@example.com");
+
+        location = new Location();
+        location.setName("Rollup Location");
+        location.setAddress("Rollup Address");
+        location.setType("Bar");
+        location.setDeleted(false);
+        location = locationRepository.save(location);
+
+        Manages manages = new Manages();
+        manages.setUser(managerUser);
+        manages.setLocation(location);
+        manages.setStartDate(LocalDate.now().minusMonths(1));
+        managesRepository.save(manages);
+
+        event = new Event();
+        event.setName("Rollup Event");
+        event.setAddress("Event Address");
+        event.setType("concert");
+        event.setDate(LocalDate.now().minusDays(2));
+        event.setRecurrent(true);
+        event.setDeleted(false);
+        event.setLocation(location);
+        event.setPrice(0.0);
+        event = eventRepository.save(event);
+        locationDailyStatsService.rebuildLocation(location.getId());
+    }
+
+    @Test
+    void reviewWrites_ApplyToTodaysRow() {
+        ReviewDetailsDTO first = reviewService.createReview(location.getId(), review(8, null), firstReviewer.getEmail());
+        reviewService.createReview(location.getId(), review(6, 4), secondReviewer.getEmail());
+
+        LocationDailyStats today = day(LocalDate.now());
+        assertEquals(2L, today.getReviewCount());
+        assertEquals(14L, today.getOverallImpressionSum());
+        assertEquals(2L, today.getOverallImpressionCount());
+        assertEquals(4L, today.getVenueSum());
+        assertEquals(1L, today.getVenueCount());
+        assertEquals(2L, HyperLogLog.estimate(today.getReviewers()));
+
+        UpdateReviewDTO update = new UpdateReviewDTO();
+        update.setPerformance(5);
+        update.setSoundAndLighting(5);
+        update.setVenue(5);
+        update.setOverallImpression(10);
+        reviewService.updateReview(first.getId(), update, firstReviewer.getEmail());
+
+        today = day(LocalDate.now());
+        assertEquals(2L, today.getReviewCount());
+        assertEquals(16L, today.getOverallImpressionSum());
+        assertEquals(9L, today.getVenueSum());
+        assertEquals(2L, today.getVenueCount());
+
+        reviewService.deleteReviewByManager(first.getId(), managerUser.getEmail());
+
+        today = day(LocalDate.now());
+        assertEquals(1L, today.getReviewCount());
+        assertEquals(6L, today.getOverallImpressionSum());
+        assertEquals(1L, HyperLogLog.estimate(today.getReviewers()));
+    }
+
+    @Test
+    void eventWrites_MoveEventsHeldBetweenDays() {
+        LocalDate original = event.getDate();
+        assertEquals(1L, day(original).getEventsHeld());
+
+        LocationDailyStatsService.EventContribution before = locationDailyStatsService.capture(event);
+        event.setDate(original.plusDays(5));
+        locationDailyStatsService.applyEvent(before, locationDailyStatsService.capture(event));
+
+        assertEquals(0L, day(original).getEventsHeld());
+        assertEquals(1L, day(original.plusDays(5)).getEventsHeld());
+
+        before = locationDailyStatsService.capture(event);
+        event.setDeleted(true);
+        locationDailyStatsService.applyEvent(before, locationDailyStatsService.capture(event));
+
+        assertEquals(0L, day(original.plusDays(5)).getEventsHeld());
+    }
+
+    @Test
+    void rebuildLocation_MatchesIncrementallyMaintainedRows() {
+        reviewService.createReview(location.getId(), review(9, 7), firstReviewer.getEmail());
+        reviewService.createReview(location.getId(), review(3, null), secondReviewer.getEmail());
+        entityManager.flush();
+        List<LocationDailyStats> incremental = days();
+        entityManager.clear();
+        // A stale day that no longer has activity must disappear
+        LocationDailyStats stale = new LocationDailyStats();
+        stale.setLocationId(location.getId());
+        stale.setDate(LocalDate.now().minusDays(30));
+        stale.setReviewCount(4L);
+        stale.setReviewers(HyperLogLog.newRegisters());
+        entityManager.persist(stale);
+
+        assertEquals(2, locationDailyStatsService.rebuildLocation(location.getId()));
+
+        entityManager.flush();
+        entityManager.clear();
+        List<LocationDailyStats> rebuilt = days();
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < rebuilt.size(); i++) {
+            LocationDailyStats expected = incremental.get(i);
+            LocationDailyStats actual = rebuilt.get(i);
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getReviewCount(), actual.getReviewCount());
+            assertEquals(expected.getOverallImpressionSum(), actual.getOverallImpressionSum());
+            assertEquals(expected.getVenueCount(), actual.getVenueCount());
+            assertEquals(expected.getEventsHeld(), actual.getEventsHeld());
+            assertArrayEquals(expected.getReviewers(), actual.getReviewers());
+        }
+    }
+
+    @Test
+    void totals_MergeReviewerSketchesAcrossDays() {
+        LocationDailyStats monday = new LocationDailyStats();
+        monday.setReviewCount(3L);
+        monday.setOverallImpressionSum(21L);
+        monday.setOverallImpressionCount(3L);
+        monday.setEventsHeld(1L);
+        monday.setReviewers(HyperLogLog.newRegisters());
+        LocationDailyStats tuesday = new LocationDailyStats();
+        tuesday.setReviewCount(2L);
+        tuesday.setOverallImpressionSum(9L);
+        tuesday.setOverallImpressionCount(2L);
+        tuesday.setEventsHeld(0L);
+        tuesday.setReviewers(HyperLogLog.newRegisters());
+        for (long userId = 1; userId <= 3; userId++) {
+            HyperLogLog.add(monday.getReviewers(), userId);
+        }
+        HyperLogLog.add(tuesday.getReviewers(), 3L);
+        HyperLogLog.add(tuesday.getReviewers(), 4L);
+
+        LocationDailyStatsService.Totals totals = LocationDailyStatsService.Totals.of(List.of(monday, tuesday));
+
+        assertEquals(5L, totals.reviewCount());
+        assertEquals(6.0, totals.averageOverallImpression(), 0.0001);
+        assertEquals(1L, totals.eventsHeld());
+        assertEquals(4L, totals.distinctReviewers());
+    }
+
+    @Test
+    void reviewerSketch_StaysWithinErrorBoundForLargeSets() {
+        byte[] registers = HyperLogLog.newRegisters();
+        for (long userId = 1; userId <= 100_000; userId++) {
+            HyperLogLog.add(registers, userId);
+        }
+
+        assertEquals(100_000, HyperLogLog.estimate(registers), 100_000 * 0.1);
+    }
+
+    private LocationDailyStats day(LocalDate date) {
+        entityManager.flush();
+        return locationDailyStatsService.findDays(location.getId(), date, date).get(0);
+    }
+
+    private List<LocationDailyStats> days() {
+        return locationDailyStatsService.findDays(location.getId(), LocalDate.now().minusYears(1), LocalDate.now());
+    }
+
+    private CreateReviewDTO review(int overallImpression, Integer venue) {
+        CreateReviewDTO dto = new CreateReviewDTO();
+        dto.setEventId(event.getId());
+        dto.setPerformance(5);
+        dto.setSoundAndLighting(5);
+        dto.setVenue(venue);
+        dto.setOverallImpression(overallImpression);
+        return dto;
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setName(email);
+        user.setRoles(Set.of(Role.ROLE_USER));
+        return userRepository.save(user);
+    }
+}
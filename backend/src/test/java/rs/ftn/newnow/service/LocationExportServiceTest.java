@@ -0,0 +1,171 @@
+package rs.ftn.newnow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.model.*;
+import rs.ftn.newnow.model.enums.Role;
+import rs.ftn.newnow.repository.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class LocationExportServiceTest {
+
+    @Autowired
+    private LocationExportService locationExportService;
+
+    @Autowired
+    private LocationDailyStatsService locationDailyStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private User reviewer;
+    private Location location;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        reviewer = new User();
+        reviewer.setEmail("export.reviewer@example.com");
+        reviewer.setPassword("password");
+        reviewer.setName("Export, Reviewer");
+        reviewer.setRoles(Set.of(Role.ROLE_USER));
+        reviewer = userRepository.save(reviewer);
+
+        location = new Location();
+        location.setName("Export Location");
+        location.setAddress("Export Address");
+        location.setType("Bar");
+        location.setDeleted(false);
+        location = locationRepository.save(location);
+
+        event = new Event();
+        event.setName("Export Event");
+        event.setAddress("Event Address");
+        event.setType("concert");
+        event.setDate(LocalDate.now().minusDays(3));
+        event.setRecurrent(true);
+        event.setDeleted(false);
+        event.setLocation(location);
+        event.setPrice(0.0);
+        event = eventRepository.save(event);
+
+        createReview("Loud \"but\" fun,\nwould return", 9, false, false, LocalDateTime.now().minusDays(2));
+        createReview("Hidden by manager", 4, true, false, LocalDateTime.now().minusDays(1));
+        createReview("Deleted", 1, false, true, LocalDateTime.now());
+    }
+
+    @Test
+    void writeReviews_Csv_QuotesFieldsAndSkipsDeleted() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, locationExportService.writeReviews(location.getId(),
+                LocationExportService.ExportFormat.CSV, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,createdAt,eventId,eventName"));
+        assertTrue(lines[1].contains(",\"Export, Reviewer\","));
+        assertTrue(lines[1].endsWith(",9,\"Loud \"\"but\"\" fun,\nwould return\""));
+        assertTrue(lines[2].contains(",true,1,"));
+    }
+
+    @Test
+    void writeReviews_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        locationExportService.writeReviews(location.getId(), LocationExportService.ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(9, first.path("ratings").path("overallImpression").asInt());
+        assertEquals("Export Event", first.path("event").path("name").asText());
+        assertTrue(objectMapper.readTree(lines[1]).path("hidden").asBoolean());
+    }
+
+    @Test
+    void writeDailyStats_WritesAveragesPerDay() throws Exception {
+        locationDailyStatsService.rebuildLocation(location.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, locationExportService.writeDailyStats(location.getId(), LocalDate.now().minusDays(7),
+                LocalDate.now(), LocationExportService.ExportFormat.CSV, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("date,reviewCount,averagePerformance,averageSoundAndLighting,averageVenue,"
+                + "averageOverallImpression,eventsHeld", lines[0]);
+        assertEquals(LocalDate.now().minusDays(3) + ",0,,,,,1", lines[1]);
+        assertEquals(LocalDate.now().minusDays(2) + ",1,5.0,,,9.0,0", lines[2]);
+    }
+
+    @Test
+    void csvField_QuotesOnlyWhenNeeded() {
+        assertEquals("", LocationExportService.csvField(null));
+        assertEquals("plain", LocationExportService.csvField("plain"));
+        assertEquals("\"a,b\"", LocationExportService.csvField("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", LocationExportService.csvField("say \"hi\""));
+    }
+
+    @Test
+    void csvField_NeutralizesSpreadsheetFormulas() {
+        assertEquals("\"'=HYPERLINK(\"\"http://evil\"\")\"",
+                LocationExportService.csvField("=HYPERLINK(\"http://evil\")"));
+        assertEquals("'+1+1", LocationExportService.csvField("+1+1"));
+        assertEquals("'-2", LocationExportService.csvField("-2"));
+        assertEquals("'@SUM(A1)", LocationExportService.csvField("@SUM(A1)"));
+        assertEquals("'\tcmd", LocationExportService.csvField("\tcmd"));
+        assertEquals("\"'\r=1\"", LocationExportService.csvField("\r=1"));
+        assertEquals("\"'=1,2\"", LocationExportService.csvField("=1,2"));
+        assertEquals("-2", LocationExportService.csvField(-2));
+        assertEquals("a=b", LocationExportService.csvField("a=b"));
+    }
+
+    private void createReview(String comment, int overallImpression, boolean hidden, boolean deleted,
+                              LocalDateTime createdAt) {
+        Review review = new Review();
+        review.setUser(reviewer);
+        review.setLocation(location);
+        review.setEvent(event);
+        review.setComment(comment);
+        review.setEventCount(1);
+        review.setHidden(hidden);
+        review.setDeleted(deleted);
+        review.setDeletedByManager(false);
+        review.setCreatedAt(createdAt);
+
+        Rate rate = new Rate();
+        rate.setReview(review);
+        rate.setPerformance(5);
+        rate.setOverallImpression(overallImpression);
+        review.setRate(rate);
+        reviewRepository.save(review);
+    }
+}
@@ -0,0 +1,66 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.Test;
+import rs.ftn.newnow.dto.LeaderboardEntryDTO;
+import rs.ftn.newnow.repository.LocationDailyStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocationLeaderboardServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 1, 31);
+
+    private final LocationDailyStatsRepository statsRepository = mock(LocationDailyStatsRepository.class);
+    private final AtomicLong clock = new AtomicLong();
+    private final LocationLeaderboardService leaderboardService =
+            new LocationLeaderboardService(statsRepository, Duration.ofSeconds(30), clock::get);
+
+    @Test
+    void getLeaderboard_RanksBySelectedMetric() {
+        when(statsRepository.sumByLocationBetween(START, END)).thenReturn(List.of(
+                new Object[]{1L, "Quiet Bar", "bar", 2L, 18L, 2L, 5L},
+                new Object[]{2L, "Busy Club", "club", 10L, 60L, 10L, 1L},
+                new Object[]{3L, "New Cafe", "cafe", 0L, 0L, 0L, 0L}));
+
+        List<LeaderboardEntryDTO> byReviews = leaderboardService.getLeaderboard(START, END, "reviews", 10);
+        assertEquals(List.of(2L, 1L, 3L), byReviews.stream().map(LeaderboardEntryDTO::getLocationId).toList());
+        assertEquals(1, byReviews.get(0).getRank());
+
+        List<LeaderboardEntryDTO> byRating = leaderboardService.getLeaderboard(START, END, "RATING", 10);
+        assertEquals(List.of(1L, 2L, 3L), byRating.stream().map(LeaderboardEntryDTO::getLocationId).toList());
+        assertEquals(9.0, byRating.get(0).getAverageRating(), 0.0001);
+        assertNull(byRating.get(2).getAverageRating());
+
+        List<LeaderboardEntryDTO> byEvents = leaderboardService.getLeaderboard(START, END, "events", 1);
+        assertEquals(1, byEvents.size());
+        assertEquals(5L, byEvents.get(0).getEventCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> leaderboardService.getLeaderboard(START, END, "visitors", 10));
+    }
+
+    @Test
+    void getLeaderboard_ReusesRowsUntilTtlExpires() {
+        when(statsRepository.sumByLocationBetween(START, END))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Quiet Bar", "bar", 2L, 18L, 2L, 5L}));
+
+        leaderboardService.getLeaderboard(START, END, "reviews", 10);
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        leaderboardService.getLeaderboard(START, END, "rating", 10);
+        verify(statsRepository, times(1)).sumByLocationBetween(START, END);
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        leaderboardService.getLeaderboard(START, END, "reviews", 10);
+        verify(statsRepository, times(2)).sumByLocationBetween(START, END);
+
+        leaderboardService.getLeaderboard(START, END.minusDays(1), "reviews", 10);
+        verify(statsRepository).sumByLocationBetween(START, END.minusDays(1));
+    }
+}
@@ -16,7 +16,6 @@ import rs.ftn.newnow.model.Location;
 import rs.ftn.newnow.model.Review;
 import rs.ftn.newnow.repository.EventRepository;
 import rs.ftn.newnow.repository.LocationRepository;
-import rs.ftn.newnow.repository.ManagesRepository;
 import rs.ftn.newnow.repository.ReviewRepository;
 
 import java.time.LocalDate;
@@ -42,11 +41,14 @@ class LocationServiceTest {
     private EventRepository eventRepository;
 
     @Mock
-    private ManagesRepository managesRepository;
+    private ManagerAuthorizationIndex managerAuthorizationIndex;
 
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
     @InjectMocks
     private LocationService locationService;
 
@@ -116,7 +118,6 @@ class LocationServiceTest {
     @Test
     void getLocationDetails_WithValidId_ShouldReturnDetails() {
         when(locationRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(testLocation));
-        when(reviewRepository.findByLocationIdAndNotDeleted(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
         when(eventRepository.findUpcomingByLocation(anyLong(), any(LocalDate.class), any(Pageable.class)))
                 .thenReturn(Page.empty());
 
@@ -252,12 +253,11 @@ class LocationServiceTest {
 
     @Test
     void isUserManagerOfLocation_WithActiveManagement_ShouldReturnTrue() {
-        when(managesRepository.findActiveManagement(anyLong(), anyLong(), any(LocalDate.class)))
-                .thenReturn(List.of());
+        when(managerAuthorizationIndex.isManager(anyLong(), anyLong())).thenReturn(false);
 
         boolean result = locationService.isUserManagerOfLocation(1L, 1L);
 
         assertFalse(result);
-        verify(managesRepository).findActiveManagement(anyLong(), anyLong(), any(LocalDate.class));
+        verify(managerAuthorizationIndex).isManager(1L, 1L);
     }
 }
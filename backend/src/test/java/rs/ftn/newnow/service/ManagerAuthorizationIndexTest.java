@@ -0,0 +1,211 @@
+package rs.ftn.newnow.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.dto.AssignManagerDTO;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.model.Manages;
+import rs.ftn.newnow.model.User;
+import rs.ftn.newnow.model.enums.Role;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.ManagesRepository;
+import rs.ftn.newnow.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ManagerAuthorizationIndexTest {
+
+    @Autowired
+    private ManagerAuthorizationIndex managerAuthorizationIndex;
+
+    @Autowired
+    private ManagesService managesService;
+
+    @Autowired
+    private ManagesRepository managesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Location location;
+
+    // Not a @BeforeEach: the rollback test runs outside the test transaction and must not commit fixtures
+    private void createFixtures() {
+        user = createUser("indexed.manager@example.com");
+        location = createLocation("Indexed Location");
+    }
+
+    @Test
+    void load_IndexesExistingAssignments() {
+        createFixtures();
+        Manages manages = new Manages();
+        manages.setUser(user);
+        manages.setLocation(location);
+        managesRepository.save(manages);
+
+        managerAuthorizationIndex.load();
+
+        List<Object[]> active = managesRepository.findActiveAssignments(LocalDate.now());
+        assertFalse(active.isEmpty());
+        for (Object[] row : active) {
+            assertTrue(managerAuthorizationIndex.isManager((Long) row[1], (Long) row[3]));
+            assertTrue(managerAuthorizationIndex.isManager((String) row[2], (Long) row[3]));
+        }
+    }
+
+    @Test
+    void assignAndRemoveManager_UpdateBothDirections() {
+        createFixtures();
+        managesService.assignManager(location.getId(), new AssignManagerDTO(user.getId()));
+
+        assertTrue(managerAuthorizationIndex.isManager(user.getId(), location.getId()));
+        assertTrue(managerAuthorizationIndex.isManager(user.getEmail(), location.getId()));
+        assertEquals(Set.of(location.getId()), managerAuthorizationIndex.managedLocationIds(user.getId()));
+        assertEquals(Set.of(user.getId()), managerAuthorizationIndex.managerIds(location.getId()));
+
+        managesService.removeManager(location.getId(), user.getId());
+
+        assertFalse(managerAuthorizationIndex.isManager(user.getId(), location.getId()));
+        assertTrue(managerAuthorizationIndex.managedLocationIds(user.getId()).isEmpty());
+        assertTrue(managerAuthorizationIndex.managerIds(location.getId()).isEmpty());
+    }
+
+    @Test
+    void isManager_RunsNoQueries() {
+        createFixtures();
+        managesService.assignManager(location.getId(), new AssignManagerDTO(user.getId()));
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(managerAuthorizationIndex.isManager(user.getEmail(), location.getId()));
+        assertFalse(managerAuthorizationIndex.isManager(user.getId(), location.getId() + 1000));
+        assertFalse(managerAuthorizationIndex.isManager("nobody@example.com", location.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void endDate_ExpiresAssignment() {
+        createFixtures();
+        Manages manages = new Manages();
+        manages.setUser(user);
+        manages.setLocation(location);
+        manages.setEndDate(LocalDate.now().plusDays(1));
+        manages = managesRepository.save(manages);
+        assertTrue(managerAuthorizationIndex.isManager(user.getId(), location.getId()));
+
+        manages.setEndDate(LocalDate.now());
+        entityManager.flush();
+
+        assertFalse(managerAuthorizationIndex.isManager(user.getId(), location.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rolledBackAssignment_IsDropped() {
+        Long[] ids = new Long[2];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User rolledBackUser = createUser("rolled.back@example.com");
+            Location rolledBackLocation = createLocation("Rolled Back Location");
+            Manages manages = new Manages();
+            manages.setUser(rolledBackUser);
+            manages.setLocation(rolledBackLocation);
+            managesRepository.save(manages);
+            ids[0] = rolledBackUser.getId();
+            ids[1] = rolledBackLocation.getId();
+            assertTrue(managerAuthorizationIndex.isManager(ids[0], ids[1]));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(managerAuthorizationIndex.isManager(ids[0], ids[1]));
+        assertFalse(managerAuthorizationIndex.isManager("rolled.back@example.com", ids[1]));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void uncommittedAssignment_IsInvisibleToOtherThreads() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long[] ids = new Long[2];
+        try {
+            transaction.executeWithoutResult(status -> {
+                User pendingUser = createUser("pending.manager@example.com");
+                Location pendingLocation = createLocation("Pending Location");
+                Manages manages = new Manages();
+                manages.setUser(pendingUser);
+                manages.setLocation(pendingLocation);
+                managesRepository.saveAndFlush(manages);
+                ids[0] = pendingUser.getId();
+                ids[1] = pendingLocation.getId();
+
+                assertTrue(managerAuthorizationIndex.isManager(ids[0], ids[1]));
+                assertFalse(CompletableFuture.supplyAsync(
+                        () -> managerAuthorizationIndex.isManager(ids[0], ids[1])).join());
+                assertFalse(CompletableFuture.supplyAsync(
+                        () -> managerAuthorizationIndex.managerIds(ids[1]).contains(ids[0])).join());
+            });
+
+            assertTrue(CompletableFuture.supplyAsync(
+                    () -> managerAuthorizationIndex.isManager(ids[0], ids[1])).join());
+            assertTrue(managerAuthorizationIndex.isManager("pending.manager@example.com", ids[1]));
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                managesRepository.findAll().stream()
+                        .filter(manages -> manages.getUser().getId().equals(ids[0]))
+                        .forEach(managesRepository::delete);
+                if (ids[0] != null) {
+                    userRepository.deleteById(ids[0]);
+                    locationRepository.deleteById(ids[1]);
+                }
+            });
+        }
+    }
+
+    private User createUser(String email) {
+        User newUser = new User();
+        newUser.setEmail(email);
+        newUser.setPassword("password");
+        newUser.setName("Index Test User");
+        newUser.setRoles(new HashSet<>(Set.of(Role.ROLE_USER)));
+        return userRepository.save(newUser);
+    }
+
+    private Location createLocation(String name) {
+        Location newLocation = new Location();
+        newLocation.setName(name);
+        newLocation.setAddress("Index Street 1");
+        newLocation.setType("Bar");
+        newLocation.setDeleted(false);
+        newLocation.setTotalRating(0.0);
+        return locationRepository.save(newLocation);
+    }
+}
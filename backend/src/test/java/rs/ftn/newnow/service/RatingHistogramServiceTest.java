@@ -0,0 +1,156 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import rs.ftn.newnow.dto.CreateReviewDTO;
+import rs.ftn.newnow.dto.DimensionDistributionDTO;
+import rs.ftn.newnow.dto.RatingDistributionDTO;
+import rs.ftn.newnow.dto.ReviewDetailsDTO;
+import rs.ftn.newnow.dto.UpdateReviewDTO;
+import rs.ftn.newnow.model.*;
+import rs.ftn.newnow.model.enums.HistogramScope;
+import rs.ftn.newnow.model.enums.Role;
+import rs.ftn.newnow.repository.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RatingHistogramServiceTest {
+
+    @Autowired
+    private RatingHistogramService ratingHistogramService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ManagesRepository managesRepository;
+
+    private User managerUser;
+    private Location location;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        managerUser = createUser("histogram.manager@example.com");
+
+        location = new Location();
+        location.setName("Histogram Location");
+        location.setAddress("Histogram Address");
+        location.setType("Club");
+        location.setDeleted(false);
+        location = locationRepository.save(location);
+
+        Manages manages = new Manages();
+        manages.setUser(managerUser);
+        manages.setLocation(location);
+        manages.setStartDate(LocalDate.now().minusMonths(1));
+        managesRepository.save(manages);
+
+        event = new Event();
+        event.setName("Histogram Event");
+        event.setAddress("Event Address");
+        event.setType("concert");
+        event.setDate(LocalDate.now().minusDays(1));
+        event.setRecurrent(true);
+        event.setDeleted(false);
+        event.setLocation(location);
+        event.setPrice(0.0);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    void reviewWrites_AdjustLocationAndEventCounters() {
+        List<ReviewDetailsDTO> reviews = createReviews(2, 4, 6, 8, 10);
+
+        DimensionDistributionDTO overall = dimension(HistogramScope.LOCATION, location.getId(), "overallImpression");
+        assertEquals(List.of(0L, 1L, 0L, 1L, 0L, 1L, 0L, 1L, 0L, 1L), overall.getCounts());
+        assertEquals(5L, overall.getTotal());
+        assertEquals(6.0, overall.getAverage(), 0.0001);
+        assertEquals(4, overall.getP25());
+        assertEquals(6, overall.getMedian());
+        assertEquals(8, overall.getP75());
+        assertEquals(10, overall.getP90());
+        assertEquals(overall, dimension(HistogramScope.EVENT, event.getId(), "overallImpression"));
+        assertNull(dimension(HistogramScope.LOCATION, location.getId(), "venue").getAverage());
+
+        UpdateReviewDTO update = new UpdateReviewDTO();
+        update.setOverallImpression(3);
+        update.setVenue(7);
+        reviewService.updateReview(reviews.get(0).getId(), update, "histogram.reviewer0@example.com");
+        reviewService.deleteReviewByManager(reviews.get(4).getId(), managerUser.getEmail());
+
+        overall = dimension(HistogramScope.LOCATION, location.getId(), "overallImpression");
+        assertEquals(List.of(0L, 0L, 1L, 1L, 0L, 1L, 0L, 1L, 0L, 0L), overall.getCounts());
+        assertEquals(4L, overall.getTotal());
+        assertEquals(1L, dimension(HistogramScope.EVENT, event.getId(), "venue").getTotal());
+    }
+
+    @Test
+    void rebuildLocation_MatchesIncrementallyMaintainedCounters() {
+        createReviews(1, 1, 5, 9);
+        RatingDistributionDTO incremental = ratingHistogramService.getDistribution(HistogramScope.LOCATION, location.getId());
+        RatingDistributionDTO incrementalEvent = ratingHistogramService.getDistribution(HistogramScope.EVENT, event.getId());
+
+        ratingHistogramService.rebuildLocation(location.getId());
+
+        assertEquals(incremental, ratingHistogramService.getDistribution(HistogramScope.LOCATION, location.getId()));
+        assertEquals(incrementalEvent, ratingHistogramService.getDistribution(HistogramScope.EVENT, event.getId()));
+    }
+
+    @Test
+    void unknownScope_ReturnsEmptyDistribution() {
+        DimensionDistributionDTO performance = dimension(HistogramScope.EVENT, -1L, "performance");
+
+        assertEquals(10, performance.getCounts().size());
+        assertEquals(0L, performance.getTotal());
+        assertNull(performance.getMedian());
+    }
+
+    private DimensionDistributionDTO dimension(HistogramScope scope, Long id, String name) {
+        return ratingHistogramService.getDistribution(scope, id).getDimensions().get(name);
+    }
+
+    private List<ReviewDetailsDTO> createReviews(int... overallImpressions) {
+        List<ReviewDetailsDTO> reviews = new ArrayList<>();
+        for (int i = 0; i < overallImpressions.length; i++) {
+            User reviewer = createUser("histogram.reviewer" + i + "@example.com");
+            CreateReviewDTO dto = new CreateReviewDTO();
+            dto.setEventId(event.getId());
+            dto.setPerformance(5);
+            dto.setSoundAndLighting(5);
+            dto.setOverallImpression(overallImpressions[i]);
+            reviews.add(reviewService.createReview(location.getId(), dto, reviewer.getEmail()));
+        }
+        return reviews;
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setName(email);
+        user.setRoles(Set.of(Role.ROLE_USER));
+        return userRepository.save(user);
+    }
+}
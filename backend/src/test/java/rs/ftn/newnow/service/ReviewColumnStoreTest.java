@@ -0,0 +1,106 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.Test;
+import rs.ftn.newnow.repository.ReviewRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewColumnStoreTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final ReviewColumnStore store = new ReviewColumnStore(reviewRepository);
+
+    @Test
+    void load_AggregatesRangeAndLocationFilter() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 1L, 10L, MONDAY.atTime(20, 0), 8, 6, null, 9});
+        rows.add(new Object[]{2L, 2L, 20L, MONDAY.plusDays(1).atTime(21, 0), 4, null, null, 5});
+        rows.add(new Object[]{3L, 1L, 10L, MONDAY.plusDays(2).atTime(22, 0), null, null, null, null});
+        rows.add(new Object[]{4L, 1L, 11L, MONDAY.plusDays(5).atTime(19, 0), 10, 10, 10, 10});
+        when(reviewRepository.findColumnarRows()).thenReturn(rows);
+
+        store.load();
+
+        assertTrue(store.isReady());
+        ReviewColumnStore.RatingTotals all = store.aggregate(MONDAY, MONDAY.plusDays(2), null);
+        assertEquals(3, all.reviewCount());
+        assertEquals(6.0, all.average(0), 0.0001);
+        assertEquals(6.0, all.average(1), 0.0001);
+        assertNull(all.average(2));
+        assertEquals(7.0, all.average(3), 0.0001);
+
+        BitSet firstLocation = new BitSet();
+        firstLocation.set(1);
+        ReviewColumnStore.RatingTotals filtered = store.aggregate(MONDAY.plusDays(1), MONDAY.plusDays(5), firstLocation);
+        assertEquals(2, filtered.reviewCount());
+        assertEquals(10.0, filtered.average(3), 0.0001);
+    }
+
+    @Test
+    void upsert_UpdatesInPlaceTombstonesAndInsertsOutOfOrder() {
+        store.upsert(row(1L, 1L, MONDAY.plusDays(3), true, 6));
+        store.upsert(row(2L, 1L, MONDAY.plusDays(4), true, 8));
+        // Written late with an earlier creation day
+        store.upsert(row(3L, 2L, MONDAY, true, 2));
+        store.upsert(row(1L, 1L, MONDAY.plusDays(3), true, 10));
+
+        ReviewColumnStore.RatingTotals totals = store.aggregate(MONDAY, MONDAY.plusDays(4), null);
+        assertEquals(3, totals.reviewCount());
+        assertEquals(20.0 / 3, totals.average(3), 0.0001);
+        assertEquals(1, store.aggregate(MONDAY, MONDAY, null).reviewCount());
+
+        store.upsert(row(2L, 1L, MONDAY.plusDays(4), false, 8));
+        totals = store.aggregate(MONDAY, MONDAY.plusDays(4), null);
+        assertEquals(2, totals.reviewCount());
+        assertEquals(6.0, totals.average(3), 0.0001);
+
+        // Updating the out-of-order row after the shift still finds it
+        store.upsert(row(3L, 2L, MONDAY, true, 4));
+        assertEquals(4.0, store.aggregate(MONDAY, MONDAY, null).average(3), 0.0001);
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void parallelScan_MatchesSequentialTotals() {
+        Random random = new Random(7);
+        int reviews = ReviewColumnStore.PARALLEL_THRESHOLD * 4 + 17;
+        long expectedSum = 0;
+        long expectedReviews = 0;
+        BitSet evenLocations = new BitSet();
+        for (int location = 0; location < 50; location += 2) {
+            evenLocations.set(location);
+        }
+        for (int i = 0; i < reviews; i++) {
+            LocalDate day = MONDAY.plusDays(i / 1000);
+            long location = random.nextInt(50);
+            int score = 1 + random.nextInt(10);
+            store.upsert(row((long) i + 1, location, day, true, score));
+            if (location % 2 == 0 && !day.isAfter(MONDAY.plusDays(100))) {
+                expectedSum += score;
+                expectedReviews++;
+            }
+        }
+
+        ReviewColumnStore.RatingTotals totals = store.aggregate(MONDAY, MONDAY.plusDays(100), evenLocations);
+
+        assertEquals(expectedReviews, totals.reviewCount());
+        assertEquals(expectedSum, totals.sums()[3]);
+        assertEquals(expectedReviews, totals.counts()[3]);
+    }
+
+    private static ReviewColumnStore.ReviewRow row(Long id, Long locationId, LocalDate date, boolean live,
+                                                   Integer overallImpression) {
+        return new ReviewColumnStore.ReviewRow(id, locationId, locationId * 10, date, live,
+                5, null, null, overallImpression);
+    }
+}
@@ -1,10 +1,14 @@
 package rs.ftn.newnow.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import rs.ftn.newnow.dto.*;
@@ -14,6 +18,8 @@ import rs.ftn.newnow.repository.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +47,15 @@ class ReviewServiceTest {
     @Autowired
     private ManagesRepository managesRepository;
 
+    @Autowired
+    private LocationPopularityRepository locationPopularityRepository;
+
+    @Autowired
+    private ReviewAggregateService reviewAggregateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User testUser;
     private User managerUser;
     private Location testLocation;
@@ -175,6 +190,30 @@ class ReviewServiceTest {
         assertTrue(result.hasContent());
     }
 
+    @Test
+    void testGetLocationReviewsByCursor_WalksTiesById() {
+        LocalDateTime sameTime = LocalDateTime.now().withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Review review = createTestReview();
+            review.setCreatedAt(sameTime);
+            ids.add(reviewRepository.save(review).getId());
+        }
+
+        CursorPageResponse<ReviewDetailsDTO> first = reviewService.getLocationReviewsByCursor(
+                testLocation.getId(), "date", "desc", "", 2);
+        assertEquals(List.of(ids.get(2), ids.get(1)),
+                first.getContent().stream().map(ReviewDetailsDTO::getId).toList());
+        assertTrue(first.isHasNext());
+
+        CursorPageResponse<ReviewDetailsDTO> second = reviewService.getLocationReviewsByCursor(
+                testLocation.getId(), "date", "desc", first.getNextCursor(), 2);
+        assertEquals(List.of(ids.get(0)),
+                second.getContent().stream().map(ReviewDetailsDTO::getId).toList());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
     @Test
     void testHideReview_Manager_Success() {
         Review review = createTestReview();
@@ -233,6 +272,162 @@ class ReviewServiceTest {
         assertTrue(foundInManager, "Hidden review should appear in manager list");
     }
 
+    @Test
+    void testCreateReview_UpdatesLocationRatingAggregates() {
+        CreateReviewDTO dto = new CreateReviewDTO();
+        dto.setEventId(testEvent.getId());
+        dto.setPerformance(8);
+        dto.setSoundAndLighting(6);
+        dto.setVenue(7);
+        dto.setOverallImpression(7);
+
+        reviewService.createReview(testLocation.getId(), dto, testUser.getEmail());
+
+        Location location = reloadLocation();
+        assertEquals(1L, location.getRatingCount());
+        assertEquals(7.0, location.getRatingSum(), 0.0001);
+        assertEquals(7.0, location.getTotalRating(), 0.0001);
+    }
+
+    @Test
+    void testUpdateAndDeleteReview_AdjustLocationRatingByDelta() {
+        CreateReviewDTO dto = new CreateReviewDTO();
+        dto.setEventId(testEvent.getId());
+        dto.setPerformance(4);
+        dto.setSoundAndLighting(4);
+        dto.setVenue(4);
+        dto.setOverallImpression(4);
+        ReviewDetailsDTO created = reviewService.createReview(testLocation.getId(), dto, testUser.getEmail());
+
+        UpdateReviewDTO update = new UpdateReviewDTO();
+        update.setPerformance(10);
+        update.setSoundAndLighting(10);
+        update.setVenue(10);
+        update.setOverallImpression(10);
+        reviewService.updateReview(created.getId(), update, testUser.getEmail());
+
+        Location location = reloadLocation();
+        assertEquals(1L, location.getRatingCount());
+        assertEquals(10.0, location.getTotalRating(), 0.0001);
+
+        reviewService.deleteReview(created.getId(), testUser.getEmail());
+
+        location = reloadLocation();
+        assertEquals(0L, location.getRatingCount());
+        assertEquals(0.0, location.getRatingSum(), 0.0001);
+        assertEquals(0.0, location.getTotalRating(), 0.0001);
+    }
+
+    @Test
+    void testHideReview_RemovesItFromLocationRating() {
+        Review review = createTestReview();
+        reviewAggregateService.reconcile();
+        assertEquals(1L, reloadLocation().getRatingCount());
+
+        reviewService.hideReview(review.getId(), true, managerUser.getEmail());
+        assertEquals(0L, reloadLocation().getRatingCount());
+
+        reviewService.hideReview(review.getId(), false, managerUser.getEmail());
+        Location location = reloadLocation();
+        assertEquals(1L, location.getRatingCount());
+        assertEquals(8.0, location.getTotalRating(), 0.0001);
+    }
+
+    @Test
+    void testReconcile_RebuildsAggregatesFromReviews() {
+        createTestReview();
+        Review hidden = createTestReview();
+        hidden.setHidden(true);
+        reviewRepository.save(hidden);
+
+        reviewAggregateService.reconcile();
+
+        Location location = reloadLocation();
+        assertEquals(1L, location.getRatingCount());
+        assertEquals(8.0, location.getRatingSum(), 0.0001);
+        assertEquals(8.0, location.getTotalRating(), 0.0001);
+    }
+
+    @Test
+    void testReviewWrites_MaintainPopularityCounters() {
+        CreateReviewDTO dto = new CreateReviewDTO();
+        dto.setEventId(testEvent.getId());
+        dto.setPerformance(5);
+        dto.setSoundAndLighting(5);
+        dto.setVenue(5);
+        dto.setOverallImpression(9);
+        ReviewDetailsDTO created = reviewService.createReview(testLocation.getId(), dto, testUser.getEmail());
+
+        LocationPopularity popularity = locationPopularityRepository.findById(testLocation.getId()).orElseThrow();
+        assertEquals(1L, popularity.getReviewCount());
+        assertEquals(9L, popularity.getRatingSum());
+        assertNotNull(popularity.getLastReviewAt());
+        assertTrue(locationRepository.findPopularLocations(PageRequest.of(0, 10)).stream()
+                .anyMatch(l -> l.getId().equals(testLocation.getId())));
+
+        reviewService.deleteReviewByManager(created.getId(), managerUser.getEmail());
+
+        entityManager.clear();
+        popularity = locationPopularityRepository.findById(testLocation.getId()).orElseThrow();
+        assertEquals(0L, popularity.getReviewCount());
+        assertEquals(0L, popularity.getRatingSum());
+        assertTrue(locationRepository.findPopularLocations(PageRequest.of(0, 10)).stream()
+                .noneMatch(l -> l.getId().equals(testLocation.getId())));
+    }
+
+    @Test
+    void testReviewDetailPages_CostOneSelectPlusCount() {
+        createReviewsFromDistinctUsers(20);
+
+        // Each service call also checks that the location exists
+        assertEquals(3, countStatements(() ->
+                reviewService.getLocationReviews(testLocation.getId(), "date", "desc", 0, 20)));
+        assertEquals(3, countStatements(() ->
+                reviewService.getLocationReviews(testLocation.getId(), "rating", "asc", 0, 20)));
+        assertEquals(3, countStatements(() ->
+                reviewService.getLocationReviewsForManager(testLocation.getId(), "date", "asc", 0, 20)));
+        assertEquals(2, countStatements(() ->
+                reviewService.getLocationReviewsByCursor(testLocation.getId(), "date", "desc", null, 20)));
+        assertEquals(1, countStatements(() ->
+                reviewService.getLatestReviewsForLocation(testLocation.getId(), 3)));
+
+        Page<ReviewDetailsDTO> page = reviewService.getLocationReviews(testLocation.getId(), "date", "desc", 0, 20);
+        assertEquals(20, page.getTotalElements());
+        ReviewDetailsDTO newest = page.getContent().get(0);
+        assertEquals("Reviewer 19", newest.getAuthor().getName());
+        assertEquals("reviewer19@example.com", newest.getAuthor().getEmail());
+        assertEquals(testEvent.getName(), newest.getEvent().getName());
+        assertEquals(8.0, newest.getRatings().getAverage(), 0.0001);
+    }
+
+    @Test
+    void testReviewEntityPages_FetchMappedAssociations() {
+        createReviewsFromDistinctUsers(20);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        assertEquals(2, countStatements(() ->
+                reviewRepository.findByLocationIdAndNotDeleted(testLocation.getId(), pageable)
+                        .forEach(this::touchMappedAssociations)));
+        assertEquals(1, countStatements(() ->
+                reviewRepository.findByLocationIdOrderByDateBefore(testLocation.getId(), null, null, pageable)
+                        .forEach(this::touchMappedAssociations)));
+        assertEquals(1, countStatements(() ->
+                reviewRepository.findTop3ByLocationId(testLocation.getId(), PageRequest.of(0, 3))
+                        .forEach(this::touchMappedAssociations)));
+        for (int i = 0; i < 12; i++) {
+            createTestReview();
+        }
+        assertEquals(2, countStatements(() ->
+                reviewRepository.findByUserIdAndNotDeleted(testUser.getId(), PageRequest.of(0, 10))
+                        .forEach(this::touchMappedAssociations)));
+    }
+
+    private Location reloadLocation() {
+        entityManager.flush();
+        entityManager.clear();
+        return locationRepository.findById(testLocation.getId()).orElseThrow();
+    }
+
     private Review createTestReview() {
         Review review = new Review();
         review.setUser(testUser);
@@ -255,4 +450,35 @@ class ReviewServiceTest {
 
         return reviewRepository.save(review);
     }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void touchMappedAssociations(Review review) {
+        review.getLocation().getName();
+        review.getEvent().getName();
+        review.getRate().getOverallImpression();
+    }
+
+    private void createReviewsFromDistinctUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            User reviewer = new User();
+            reviewer.setEmail("reviewer" + i + "@example.com");
+            reviewer.setPassword("password");
+            reviewer.setName("Reviewer " + i);
+            reviewer.setRoles(Set.of(Role.ROLE_USER));
+            reviewer = userRepository.save(reviewer);
+
+            Review review = createTestReview();
+            review.setUser(reviewer);
+            review.setCreatedAt(LocalDateTime.now().minusHours(count - i));
+        }
+    }
 }
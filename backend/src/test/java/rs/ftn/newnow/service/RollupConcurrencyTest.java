@@ -0,0 +1,130 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rs.ftn.newnow.dto.DimensionDistributionDTO;
+import rs.ftn.newnow.model.Location;
+import rs.ftn.newnow.model.LocationDailyStats;
+import rs.ftn.newnow.model.enums.HistogramScope;
+import rs.ftn.newnow.repository.LocationDailyStatsRepository;
+import rs.ftn.newnow.repository.LocationRepository;
+import rs.ftn.newnow.repository.RatingHistogramRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * First writes to a rollup row from transactions that commit together. Not transactional itself,
+ * since every writer has to commit on its own thread.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RollupConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    // Histograms key events by id only, so no event row is needed
+    private static final long EVENT_ID = 900_001L;
+
+    @Autowired
+    private LocationDailyStatsService locationDailyStatsService;
+
+    @Autowired
+    private LocationDailyStatsRepository statsRepository;
+
+    @Autowired
+    private RatingHistogramService ratingHistogramService;
+
+    @Autowired
+    private RatingHistogramRepository ratingHistogramRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Location location;
+
+    @BeforeEach
+    void setUp() {
+        location = new Location();
+        location.setName("Concurrent Location");
+        location.setAddress("Concurrent Address");
+        location.setType("Bar");
+        location.setDeleted(false);
+        location = locationRepository.save(location);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsRepository.deleteAll(statsRepository.findByLocation(location.getId()));
+        ratingHistogramRepository.findByScope(HistogramScope.LOCATION, location.getId())
+                .ifPresent(ratingHistogramRepository::delete);
+        ratingHistogramRepository.findByScope(HistogramScope.EVENT, EVENT_ID)
+                .ifPresent(ratingHistogramRepository::delete);
+        locationRepository.deleteById(location.getId());
+    }
+
+    @Test
+    void dailyStats_ConcurrentFirstWritesOfADay_AllApply() throws Exception {
+        LocalDate day = LocalDate.now().minusDays(1);
+
+        runConcurrently(() -> locationDailyStatsService.applyEvent(null,
+                new LocationDailyStatsService.EventContribution(location.getId(), day)));
+
+        List<LocationDailyStats> days = statsRepository.findByLocation(location.getId());
+        assertEquals(1, days.size());
+        assertEquals(WRITERS, days.get(0).getEventsHeld());
+    }
+
+    @Test
+    void ratingHistograms_ConcurrentFirstReviewsOfAScope_AllApply() throws Exception {
+        LocationDailyStatsService.ReviewContribution review = new LocationDailyStatsService.ReviewContribution(
+                location.getId(), EVENT_ID, LocalDate.now(), 1L, 7, null, null, 9);
+
+        runConcurrently(() -> ratingHistogramService.apply(null, review));
+
+        DimensionDistributionDTO locationImpression = ratingHistogramService
+                .getDistribution(HistogramScope.LOCATION, location.getId()).getDimensions().get("overallImpression");
+        DimensionDistributionDTO eventPerformance = ratingHistogramService
+                .getDistribution(HistogramScope.EVENT, EVENT_ID).getDimensions().get("performance");
+        assertEquals(WRITERS, locationImpression.getTotal());
+        assertEquals(WRITERS, locationImpression.getCounts().get(8));
+        assertEquals(WRITERS, eventPerformance.getCounts().get(6));
+    }
+
+    private void runConcurrently(Runnable write) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    transaction.executeWithoutResult(status -> write.run());
+                    return null;
+                }));
+            }
+            for (Future<?> result : writes) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
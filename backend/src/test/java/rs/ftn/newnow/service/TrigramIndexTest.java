@@ -0,0 +1,71 @@
+package rs.ftn.newnow.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void shouldFindDocumentsContainingTerm() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Jazz Club", "Main Street 5");
+        index.put(2L, "Rock Bar", "Jazz Alley 1");
+        index.put(3L, "Wine Bar", "Side Street");
+
+        assertEquals(Set.of(1L, 2L), index.candidates("JAZZ"));
+        assertEquals(Set.of(1L, 3L), index.candidates("street"));
+        assertTrue(index.candidates("opera").isEmpty());
+    }
+
+    @Test
+    void shouldNotNarrowTermsShorterThanTrigram() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Jazz Club");
+
+        assertNull(index.candidates("ja"));
+        assertNull(index.candidates(null));
+    }
+
+    @Test
+    void shouldReplaceAndRemoveDocuments() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Jazz Club");
+        index.add(1L, "Blues Club");
+
+        assertEquals(Set.of(1L), index.candidates("jazz"));
+        assertEquals(Set.of(1L), index.candidates("blues"));
+
+        index.put(1L, "Blues Club");
+        assertTrue(index.candidates("jazz").isEmpty());
+
+        index.remove(1L);
+        assertTrue(index.candidates("blues").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldMatchIgnoringDiacritics() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Čačak Arena");
+        index.put(2L, "Café Đorđe");
+        index.put(3L, "Cacak Pub");
+
+        assertEquals(Set.of(1L, 3L), index.candidates("cacak"));
+        assertEquals(Set.of(1L, 3L), index.candidates("ČAČAK"));
+        assertEquals(Set.of(2L), index.candidates("cafe"));
+        assertEquals(Set.of(2L), index.candidates("dorde"));
+    }
+
+    @Test
+    void shouldNotNarrowTermsWithLikeWildcards() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Jazz Club");
+
+        assertNull(index.candidates("ja%club"));
+        assertNull(index.candidates("jazz_club"));
+        assertNull(index.candidates("jazz\\%"));
+    }
+}